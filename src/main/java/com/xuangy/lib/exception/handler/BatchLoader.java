@@ -0,0 +1,341 @@
+package com.xuangy.lib.exception.handler;
+
+import com.xuangy.lib.exception.handler.ThrowsHandler.PromiseForSupplier;
+import com.xuangy.lib.exception.handler.common.FunctionWithThrow;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 自动批量加载器(DataLoader 风格)
+ *               调用方逐个提交 key, 加载器在 maxDelay / maxBatchSize 窗口内收集 key,
+ *               合并为一次批量调用 {@code FunctionWithThrow<List<K>, Map<K, V>, E>}.
+ *               每个调用方拿到属于自己的 {@link PromiseForSupplier}: 批量调用成功时为对应 key 的值(不存在则为 null),
+ *               批量调用失败时为该次调用抛出的异常.
+ *               提交路径只有无锁队列入队与原子计数, 不持有任何锁.
+ *               线程池拒绝任务或加载器已关闭时, 受影响的 future 以异常完成, 不会永远挂起.
+ * <pre>
+ * BatchLoader&lt;Long, User, IOException&gt; loader = new BatchLoader&lt;&gt;(remote::loadUsers, 100, 5, TimeUnit.MILLISECONDS);
+ * User user = loader.load(userId).logThrowable("load user error").value();
+ * </pre>
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 11:05
+ */
+public class BatchLoader<K, V, E extends Exception> implements AutoCloseable {
+
+    /**
+     * 批次大小分布的桶数量, 第 i 个桶统计大小在 [2^i, 2^(i+1)) 之间的批次
+     */
+    private static final int HISTOGRAM_BUCKETS = 32;
+
+    private final FunctionWithThrow<List<K>, Map<K, V>, E> batchFunction;
+
+    private final int maxBatchSize;
+
+    private final long maxDelayNanos;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Executor executor;
+
+    /**
+     * 是否由加载器自己创建的线程池, 关闭时需要一并关闭
+     */
+    private final boolean ownExecutors;
+
+    private final ConcurrentLinkedQueue<Pending<K, V, E>> queue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger pendingCount = new AtomicInteger();
+
+    private final AtomicBoolean timerArmed = new AtomicBoolean();
+
+    /**
+     * 是否已有满批次的分发任务在途, 保证同一时刻只提交一个满批次分发任务
+     */
+    private final AtomicBoolean dispatching = new AtomicBoolean();
+
+    private volatile boolean closed;
+
+    private final AtomicLongArray batchSizeHistogram = new AtomicLongArray(HISTOGRAM_BUCKETS);
+
+    private final LongAdder batchCount = new LongAdder();
+
+    private final LongAdder keyCount = new LongAdder();
+
+    /**
+     * @param batchFunction 批量调用函数
+     * @param maxBatchSize  单批次最大 key 数量
+     * @param maxDelay      第一个 key 入队后最多等待多久发起批量调用
+     * @param unit          maxDelay 的时间单位
+     */
+    public BatchLoader(FunctionWithThrow<List<K>, Map<K, V>, E> batchFunction, int maxBatchSize, long maxDelay, TimeUnit unit) {
+        this(batchFunction, maxBatchSize, maxDelay, unit,
+                Executors.newSingleThreadScheduledExecutor(daemonThreadFactory("batch-loader-timer")),
+                Executors.newCachedThreadPool(daemonThreadFactory("batch-loader-dispatch")), true);
+    }
+
+    /**
+     * @param batchFunction 批量调用函数
+     * @param maxBatchSize  单批次最大 key 数量
+     * @param maxDelay      第一个 key 入队后最多等待多久发起批量调用
+     * @param unit          maxDelay 的时间单位
+     * @param scheduler     窗口计时使用的调度线程池, 由调用方管理生命周期
+     * @param executor      执行批量调用的线程池, 由调用方管理生命周期
+     */
+    public BatchLoader(FunctionWithThrow<List<K>, Map<K, V>, E> batchFunction, int maxBatchSize, long maxDelay, TimeUnit unit,
+                       ScheduledExecutorService scheduler, Executor executor) {
+        this(batchFunction, maxBatchSize, maxDelay, unit, scheduler, executor, false);
+    }
+
+    private BatchLoader(@NonNull FunctionWithThrow<List<K>, Map<K, V>, E> batchFunction, int maxBatchSize, long maxDelay, @NonNull TimeUnit unit,
+                        @NonNull ScheduledExecutorService scheduler, @NonNull Executor executor, boolean ownExecutors) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        if (maxDelay < 0) {
+            throw new IllegalArgumentException("maxDelay must not be negative: " + maxDelay);
+        }
+        this.batchFunction = batchFunction;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = unit.toNanos(maxDelay);
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.ownExecutors = ownExecutors;
+    }
+
+    /**
+     * 提交一个 key, 异步获取结果
+     *
+     * @param key 待加载的 key
+     * @return 批量调用完成后完成的 future, 其中的 promise 为该 key 独有
+     */
+    public CompletableFuture<PromiseForSupplier<V, E>> submit(@NonNull K key) {
+        Pending<K, V, E> pending = new Pending<>(key);
+        if (closed) {
+            pending.future.completeExceptionally(new IllegalStateException("batch loader is closed"));
+            return pending.future;
+        }
+        queue.offer(pending);
+        int count = pendingCount.incrementAndGet();
+        if (count >= maxBatchSize) {
+            triggerFull();
+        } else if (timerArmed.compareAndSet(false, true)) {
+            try {
+                scheduler.schedule(this::onTimer, maxDelayNanos, TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                timerArmed.set(false);
+                failQueued(e);
+            }
+        }
+        return pending.future;
+    }
+
+    /**
+     * 提交一个 key, 并等待批量调用完成
+     *
+     * @param key 待加载的 key
+     * @return 该 key 的执行结果
+     */
+    public PromiseForSupplier<V, E> load(K key) {
+        return submit(key).join();
+    }
+
+    /**
+     * 立即将当前队列中的 key 全部发起批量调用
+     */
+    public void flush() {
+        List<Pending<K, V, E>> batch;
+        while ((batch = poll()) != null) {
+            final List<Pending<K, V, E>> current = batch;
+            try {
+                executor.execute(() -> execute(current));
+            } catch (RejectedExecutionException e) {
+                fail(current, e);
+                failQueued(e);
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return 已发起的批量调用次数
+     */
+    public long getBatchCount() {
+        return batchCount.sum();
+    }
+
+    /**
+     * @return 批量调用中累计的 key 数量(去重后)
+     */
+    public long getKeyCount() {
+        return keyCount.sum();
+    }
+
+    /**
+     * @return 平均批次大小, 尚未发起调用时为 0
+     */
+    public double averageBatchSize() {
+        long batches = batchCount.sum();
+        return batches == 0 ? 0D : (double) keyCount.sum() / batches;
+    }
+
+    /**
+     * 批次大小分布, 下标 i 处的值为大小在 [2^i, 2^(i+1)) 之间的批次数量
+     *
+     * @return 分布快照
+     */
+    public long[] batchSizeHistogram() {
+        long[] snapshot = new long[HISTOGRAM_BUCKETS];
+        for (int i = 0; i < HISTOGRAM_BUCKETS; i++) {
+            snapshot[i] = batchSizeHistogram.get(i);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 发起剩余 key 的批量调用, 并关闭加载器自己创建的线程池; 关闭后提交的 key 直接以 {@link IllegalStateException} 失败
+     */
+    @Override
+    public void close() {
+        closed = true;
+        flush();
+        if (ownExecutors) {
+            scheduler.shutdown();
+            ((ExecutorService) executor).shutdown();
+        }
+    }
+
+    private void onTimer() {
+        timerArmed.set(false);
+        flush();
+    }
+
+    /**
+     * 队列中已攒够一个满批次时提交分发任务, 已有分发任务在途时交由其在结束前复查
+     */
+    private void triggerFull() {
+        if (!dispatching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(this::dispatchFull);
+        } catch (RejectedExecutionException e) {
+            dispatching.set(false);
+            failQueued(e);
+        }
+    }
+
+    private void dispatchFull() {
+        List<Pending<K, V, E>> batch;
+        try {
+            batch = poll();
+        } finally {
+            dispatching.set(false);
+        }
+        // 清除标记后复查, 覆盖分发期间因标记被占用而未触发的提交
+        if (pendingCount.get() >= maxBatchSize) {
+            triggerFull();
+        }
+        if (batch != null) {
+            execute(batch);
+        }
+    }
+
+    private void failQueued(Throwable cause) {
+        List<Pending<K, V, E>> batch;
+        while ((batch = poll()) != null) {
+            fail(batch, cause);
+        }
+    }
+
+    private void fail(List<Pending<K, V, E>> batch, Throwable cause) {
+        for (Pending<K, V, E> pending : batch) {
+            pending.future.completeExceptionally(cause);
+        }
+    }
+
+    private List<Pending<K, V, E>> poll() {
+        List<Pending<K, V, E>> batch = null;
+        Pending<K, V, E> pending;
+        while ((batch == null || batch.size() < maxBatchSize) && (pending = queue.poll()) != null) {
+            if (batch == null) {
+                batch = new ArrayList<>(Math.min(maxBatchSize, pendingCount.get()));
+            }
+            batch.add(pending);
+        }
+        if (batch != null) {
+            pendingCount.addAndGet(-batch.size());
+        }
+        return batch;
+    }
+
+    private void execute(List<Pending<K, V, E>> batch) {
+        Map<K, List<Pending<K, V, E>>> byKey = new LinkedHashMap<>();
+        for (Pending<K, V, E> pending : batch) {
+            byKey.computeIfAbsent(pending.key, k -> new ArrayList<>(1)).add(pending);
+        }
+        List<K> keys = new ArrayList<>(byKey.keySet());
+        record(keys.size());
+        try {
+            PromiseForSupplier<Map<K, V>, E> result = ThrowsHandler.fun(Collections.unmodifiableList(keys), batchFunction);
+            Map<K, V> values = result.value();
+            for (Map.Entry<K, List<Pending<K, V, E>>> entry : byKey.entrySet()) {
+                V value = values == null ? null : values.get(entry.getKey());
+                for (Pending<K, V, E> pending : entry.getValue()) {
+                    PromiseForSupplier<V, E> promise = new PromiseForSupplier<>();
+                    promise.setThrowable(result.getException());
+                    promise.setReturnVal(result.getException() == null ? value : null);
+                    pending.future.complete(promise);
+                }
+            }
+        } catch (Throwable e) {
+            fail(batch, e);
+            throw e;
+        }
+    }
+
+    private void record(int size) {
+        batchCount.increment();
+        keyCount.add(size);
+        batchSizeHistogram.incrementAndGet(31 - Integer.numberOfLeadingZeros(size));
+    }
+
+    private static ThreadFactory daemonThreadFactory(String name) {
+        AtomicInteger index = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, name + "-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class Pending<K, V, E extends Exception> {
+
+        private final K key;
+
+        private final CompletableFuture<PromiseForSupplier<V, E>> future = new CompletableFuture<>();
+
+        private Pending(K key) {
+            this.key = key;
+        }
+    }
+
+}
@@ -0,0 +1,212 @@
+package com.xuangy.lib.exception.handler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @description: 作为日志参数使用的截断堆栈, 在日志框架调用 toString 时才读取并渲染堆栈
+ *               只保留栈顶 topFrames 个帧与匹配包名前缀的帧; cause 链与 suppressed 异常(按 JDK 格式缩进)同样截断,
+ *               以各段的异常类型、帧数与保留的帧计算指纹,
+ *               按 {@link StackCapture#intern(long)} 去重,
+ *               重复出现的堆栈只输出异常信息、id 与出现次数, 距上次完整输出超过 reprintInterval 时再完整输出一次.
+ *               堆栈来自 Throwable#getStackTrace: 异常的堆栈在抛出时已经确定, StackWalker 只能遍历当前线程的调用栈,
+ *               无法用于已捕获的异常.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 15:00
+ */
+final class BoundedStackTrace {
+
+    private static final String LINE_SEPARATOR = System.lineSeparator();
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /**
+     * cause 链的最大输出深度
+     */
+    private static final int MAX_CAUSES = 8;
+
+    /**
+     * 每个异常最多输出的 suppressed 异常数
+     */
+    private static final int MAX_SUPPRESSED = 4;
+
+    /**
+     * 一次输出的最多异常段数(cause 与 suppressed 合计)
+     */
+    private static final int MAX_SECTIONS = 16;
+
+    private static final String CAUSED_BY = "Caused by: ";
+
+    private static final String SUPPRESSED = "Suppressed: ";
+
+    private final Throwable throwable;
+
+    private final int topFrames;
+
+    private final String[] packages;
+
+    private String rendered;
+
+    BoundedStackTrace(Throwable throwable, int topFrames, String[] packages) {
+        this.throwable = throwable;
+        this.topFrames = topFrames;
+        this.packages = packages;
+    }
+
+    /**
+     * 同一条日志被多个 appender 输出时只渲染并计数一次
+     */
+    @Override
+    public synchronized String toString() {
+        String result = rendered;
+        if (result == null) {
+            result = render();
+            rendered = result;
+        }
+        return result;
+    }
+
+    private String render() {
+        List<Section> sections = sections();
+        long fingerprint = FNV_OFFSET;
+        for (Section section : sections) {
+            fingerprint = mix(fingerprint, section.caption.hashCode());
+            fingerprint = mix(fingerprint, section.indent);
+            fingerprint = mix(fingerprint, section.throwable.getClass().getName().hashCode());
+            // 保留的帧相同但调用深度不同时视为不同的堆栈
+            fingerprint = mix(fingerprint, section.frames.length);
+            for (int j = 0; j < section.frames.length; j++) {
+                if (keep(section.frames[j], j)) {
+                    fingerprint = mix(fingerprint, section.frames[j].hashCode());
+                }
+            }
+        }
+        StackCapture.Interned interned = StackCapture.intern(fingerprint);
+        StringBuilder builder = new StringBuilder(256);
+        builder.append(LINE_SEPARATOR).append(throwable);
+        if (interned != null) {
+            long count = interned.count.incrementAndGet();
+            builder.append(" [trace ").append(interned.id);
+            if (count > 1L) {
+                builder.append(", seen ").append(count).append(" times");
+            }
+            builder.append(']');
+            if (count > 1L && !StackCapture.reprintDue(interned)) {
+                return builder.toString();
+            }
+        }
+        for (int i = 0; i < sections.size(); i++) {
+            Section section = sections.get(i);
+            if (i > 0) {
+                builder.append(LINE_SEPARATOR);
+                indent(builder, section.indent).append(section.caption).append(section.throwable);
+            }
+            appendFrames(builder, section.frames, section.indent);
+            if (section.omittedSuppressed > 0) {
+                builder.append(LINE_SEPARATOR);
+                indent(builder, section.indent + 1).append("... ").append(section.omittedSuppressed).append(" suppressed omitted");
+            }
+        }
+        return builder.toString();
+    }
+
+    private void appendFrames(StringBuilder builder, StackTraceElement[] frames, int indent) {
+        int omitted = 0;
+        for (int i = 0; i < frames.length; i++) {
+            if (!keep(frames[i], i)) {
+                omitted++;
+                continue;
+            }
+            appendOmitted(builder, omitted, indent);
+            omitted = 0;
+            builder.append(LINE_SEPARATOR);
+            indent(builder, indent).append("\tat ").append(frames[i]);
+        }
+        appendOmitted(builder, omitted, indent);
+    }
+
+    private static void appendOmitted(StringBuilder builder, int omitted, int indent) {
+        if (omitted > 0) {
+            builder.append(LINE_SEPARATOR);
+            indent(builder, indent).append("\t... ").append(omitted).append(" frames omitted");
+        }
+    }
+
+    private static StringBuilder indent(StringBuilder builder, int indent) {
+        for (int i = 0; i < indent; i++) {
+            builder.append('\t');
+        }
+        return builder;
+    }
+
+    private boolean keep(StackTraceElement frame, int index) {
+        if (index < topFrames) {
+            return true;
+        }
+        String className = frame.getClassName();
+        for (String prefix : packages) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 按 JDK printStackTrace 的顺序展开: 异常本身, 其 suppressed 异常(缩进一级), 再沿 cause 链向下
+     */
+    private List<Section> sections() {
+        List<Section> sections = new ArrayList<>();
+        collect(sections, Collections.newSetFromMap(new IdentityHashMap<>()), throwable, "", 0);
+        return sections;
+    }
+
+    private static void collect(List<Section> sections, Set<Throwable> seen, Throwable first, String caption, int indent) {
+        Throwable current = first;
+        for (int depth = 0; current != null && depth <= MAX_CAUSES && sections.size() < MAX_SECTIONS && seen.add(current); depth++) {
+            Section section = new Section(current, depth == 0 ? caption : CAUSED_BY, indent);
+            sections.add(section);
+            Throwable[] suppressed = current.getSuppressed();
+            int shown = 0;
+            while (shown < suppressed.length && shown < MAX_SUPPRESSED && sections.size() < MAX_SECTIONS) {
+                collect(sections, seen, suppressed[shown++], SUPPRESSED, indent + 1);
+            }
+            section.omittedSuppressed = suppressed.length - shown;
+            current = current.getCause();
+        }
+    }
+
+    private static long mix(long hash, int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    /**
+     * 输出中的一段: 异常本身、一个 cause 或一个 suppressed 异常
+     */
+    private static final class Section {
+
+        private final Throwable throwable;
+
+        private final String caption;
+
+        private final int indent;
+
+        private final StackTraceElement[] frames;
+
+        private int omittedSuppressed;
+
+        private Section(Throwable throwable, String caption, int indent) {
+            this.throwable = throwable;
+            this.caption = caption;
+            this.indent = indent;
+            this.frames = throwable.getStackTrace();
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.xuangy.lib.exception.handler;
+
+import lombok.NonNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * @description: 预编译的异常处理表, 用于替代多个连续的 catCh(Class, Consumer) 调用
+ *               构建时登记 异常类型 -> 处理方法, 分发时按异常的实际类型查找最具体的处理方法(先沿父类链, 再查接口),
+ *               查找结果通过 {@link ClassValue} 按异常类型缓存, 之后同类型异常的分发为 O(1), 且不产生额外对象.
+ *               表本身不可变, 应当构建一次后作为常量复用.
+ * <pre>
+ * private static final CatchTable HANDLERS = CatchTable.builder()
+ *         .on(SocketTimeoutException.class, e -&gt; metrics.timeout())
+ *         .on(IOException.class, e -&gt; log.warn("io error", e))
+ *         .otherwise(e -&gt; log.error("unexpected", e))
+ *         .build();
+ *
+ * ThrowsHandler.run(() -&gt; remote.call()).catCh(HANDLERS);
+ * </pre>
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 21:00
+ */
+public final class CatchTable {
+
+    private static final Consumer<Exception> NO_HANDLER = e -> {
+    };
+
+    private final Map<Class<?>, Consumer<Exception>> handlers;
+
+    private final Consumer<Exception> fallback;
+
+    private final ClassValue<Consumer<Exception>> resolved = new ClassValue<Consumer<Exception>>() {
+        @Override
+        protected Consumer<Exception> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
+
+    private CatchTable(Map<Class<?>, Consumer<Exception>> handlers, Consumer<Exception> fallback) {
+        this.handlers = handlers;
+        this.fallback = fallback;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * 将异常分发给最具体的处理方法
+     *
+     * @param exception 异常, 为 null 时不做处理
+     * @return true: 找到处理方法并已执行, false: 没有匹配的处理方法
+     */
+    public boolean dispatch(Exception exception) {
+        if (exception == null) {
+            return false;
+        }
+        Consumer<Exception> handler = resolved.get(exception.getClass());
+        if (handler == NO_HANDLER) {
+            return false;
+        }
+        handler.accept(exception);
+        return true;
+    }
+
+    /**
+     * @param type 异常类型
+     * @return true: 该类型的异常存在处理方法
+     */
+    public boolean handles(@NonNull Class<? extends Exception> type) {
+        return resolved.get(type) != NO_HANDLER;
+    }
+
+    private Consumer<Exception> resolve(Class<?> type) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            Consumer<Exception> handler = handlers.get(current);
+            if (handler != null) {
+                return handler;
+            }
+        }
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            Consumer<Exception> handler = resolveInterfaces(current);
+            if (handler != null) {
+                return handler;
+            }
+        }
+        return fallback;
+    }
+
+    private Consumer<Exception> resolveInterfaces(Class<?> type) {
+        for (Class<?> face : type.getInterfaces()) {
+            Consumer<Exception> handler = handlers.get(face);
+            if (handler == null) {
+                handler = resolveInterfaces(face);
+            }
+            if (handler != null) {
+                return handler;
+            }
+        }
+        return null;
+    }
+
+    public static final class Builder {
+
+        private final Map<Class<?>, Consumer<Exception>> handlers = new HashMap<>();
+
+        private Consumer<Exception> fallback = NO_HANDLER;
+
+        private Builder() {
+        }
+
+        /**
+         * 登记异常类型的处理方法, 子类型没有单独登记时也会使用该方法
+         *
+         * @param type    异常类型
+         * @param handler 处理方法
+         * @param <T>     异常类型
+         * @return 链式调用, 返回对象本身
+         */
+        @SuppressWarnings("unchecked")
+        public <T extends Throwable> Builder on(@NonNull Class<T> type, @NonNull Consumer<? super T> handler) {
+            return register(type, (Consumer<Exception>) handler);
+        }
+
+        /**
+         * 登记异常实现的接口的处理方法, 仅在异常的父类链上没有登记的类型时使用
+         *
+         * @param type    接口类型
+         * @param handler 处理方法, 接收实现了该接口的异常
+         * @return 链式调用, 返回对象本身
+         */
+        public Builder onInterface(@NonNull Class<?> type, @NonNull Consumer<? super Exception> handler) {
+            if (!type.isInterface()) {
+                throw new IllegalArgumentException("not an interface: " + type.getName());
+            }
+            return register(type, handler::accept);
+        }
+
+        private Builder register(Class<?> type, Consumer<Exception> handler) {
+            if (handlers.putIfAbsent(type, handler) != null) {
+                throw new IllegalArgumentException("duplicate handler for " + type.getName());
+            }
+            return this;
+        }
+
+        /**
+         * 登记兜底处理方法, 没有匹配的类型时执行
+         *
+         * @param handler 处理方法
+         * @return 链式调用, 返回对象本身
+         */
+        public Builder otherwise(@NonNull Consumer<Exception> handler) {
+            this.fallback = handler;
+            return this;
+        }
+
+        public CatchTable build() {
+            return new CatchTable(new HashMap<>(handlers), fallback);
+        }
+    }
+
+}
@@ -4,7 +4,10 @@ import com.xuangy.lib.exception.handler.common.BusinessExecException;
 import com.xuangy.lib.exception.handler.common.ConsumerWithThrow;
 import com.xuangy.lib.exception.handler.common.RunnableWithThrow;
 import com.xuangy.lib.exception.handler.common.SupplierWithThrow;
-import lombok.extern.slf4j.Slf4j;
+import com.xuangy.lib.log.Log;
+import com.xuangy.lib.log.LogSinks;
+
+import java.util.concurrent.TimeUnit;
 
 /**
  * @description: 简化代码类, 对冗余的代码进行简化, 增强可读性
@@ -15,9 +18,10 @@ import lombok.extern.slf4j.Slf4j;
  * @email: wtopps111@gmail.com
  * @date: 2021/12/20 14:36
  */
-@Slf4j
 public class ExceptionHandler {
 
+    private static final Log log = LogSinks.getLog(ExceptionHandler.class);
+
     private ExceptionHandler() {
     }
 
@@ -103,6 +107,22 @@ public class ExceptionHandler {
         return simpleExceptionForSup(supplier, defaultValue, message, false);
     }
 
+    /**
+     * 忽略运行的异常, 失败时返回最近一次成功的值
+     * <p>已有成功的值时直接返回, 值的年龄超过 freshnessMillis 时在后台刷新, 不在调用线程中执行 supplier</p>
+     *
+     * @param name            supplier 名称, 同一名称共享最近一次成功的值
+     * @param supplier        带有返回值和throw的函数接口
+     * @param freshnessMillis 值的新鲜期(毫秒)
+     * @param defaultValue    尚无成功的值时, supplier 发生错误后的默认返回值
+     * @param <T>             supplier的提供的返回值类型
+     * @return 最近一次成功的值, 或 defaultValue
+     * @see StaleWhileRevalidate
+     */
+    public static <T> T ignoreExceptionWithLastValue(String name, SupplierWithThrow<T, ? extends Exception> supplier, long freshnessMillis, T defaultValue) {
+        return StaleWhileRevalidate.defaultInstance().get(name, supplier, freshnessMillis, TimeUnit.MILLISECONDS, defaultValue);
+    }
+
     /**
      * 忽略运行的异常
      *
@@ -268,16 +288,19 @@ public class ExceptionHandler {
      * @param throwException true: runnable 发生错误后抛出运行时异常, false: 仅仅打印日志
      */
     public static void simpleExceptionForRun(RunnableWithThrow<? extends Exception> runnable, String message, boolean throwException) {
+        HandlerEvents events = HandlerEvents.begin("ExceptionHandler.simpleExceptionForRun");
         try {
             runnable.run();
+            events.success(message);
         } catch (Exception e) {
+            events.failure(message, e);
             if (message == null) {
                 message = "business exception";
             }
             if (throwException) {
                 throw new BusinessExecException(message, e);
             } else {
-                log.error(message, e);
+                StackCapture.error(log, message, e);
             }
         }
     }
@@ -293,13 +316,17 @@ public class ExceptionHandler {
      * @return supplier 执行成功: supplier的返回值, supplier 执行失败: 返回 defaultValue
      */
     public static <T> T simpleExceptionForSup(SupplierWithThrow<T, ? extends Exception> supplier, T defaultValue, String message, boolean throwException) {
+        HandlerEvents events = HandlerEvents.begin("ExceptionHandler.simpleExceptionForSup");
         try {
-            return supplier.get();
+            T t = supplier.get();
+            events.success(message);
+            return t;
         } catch (Exception e) {
+            events.failure(message, e);
             if (throwException) {
                 throw new BusinessExecException(message, e);
             } else {
-                log.warn(message, e);
+                StackCapture.warn(log, message, e);
             }
         }
         return defaultValue;
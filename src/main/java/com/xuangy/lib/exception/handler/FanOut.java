@@ -0,0 +1,255 @@
+package com.xuangy.lib.exception.handler;
+
+import com.xuangy.lib.exception.handler.ThrowsHandler.PromiseForSupplier;
+import com.xuangy.lib.exception.handler.common.SupplierWithThrow;
+import lombok.NonNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * @description: 并行执行多个 SupplierWithThrow, 支持 all / any / quorum 三种汇聚语义
+ *               all: 全部成功才算成功, 任意一个失败立即结束并取消其余任务;
+ *               any: 任意一个成功即结束并取消其余任务, 全部失败才算失败;
+ *               quorum(k): k 个成功即结束并取消其余任务, 失败数使 k 不再可能达成时立即结束.
+ *               整体耗时取决于最慢的必要任务, 而不是所有任务耗时之和.
+ *               结果 {@link Result} 本身是一个 {@link PromiseForSupplier}, 可继续链式处理,
+ *               同时保留每个任务各自的执行结果.
+ * <pre>
+ * List&lt;Price&gt; prices = FanOut.all(Arrays.asList(() -&gt; a.price(id), () -&gt; b.price(id)))
+ *         .logThrowable("query price error")
+ *         .defaultVal(Collections.emptyList());
+ * </pre>
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 21:40
+ */
+public final class FanOut {
+
+    private FanOut() {
+    }
+
+    public static <R, E extends Exception> Result<R> all(List<? extends SupplierWithThrow<R, E>> tasks) {
+        return quorum(tasks.size(), tasks, DefaultExecutor.INSTANCE, 0L, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param tasks    待执行的任务
+     * @param executor 执行任务的线程池
+     * @param timeout  最长等待时间, 小于等于 0 表示不限制
+     * @param unit     timeout 的时间单位
+     * @return 汇聚后的结果
+     */
+    public static <R, E extends Exception> Result<R> all(List<? extends SupplierWithThrow<R, E>> tasks,
+                                                            Executor executor, long timeout, TimeUnit unit) {
+        return quorum(tasks.size(), tasks, executor, timeout, unit);
+    }
+
+    public static <R, E extends Exception> Result<R> any(List<? extends SupplierWithThrow<R, E>> tasks) {
+        return quorum(1, tasks, DefaultExecutor.INSTANCE, 0L, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param tasks    待执行的任务
+     * @param executor 执行任务的线程池
+     * @param timeout  最长等待时间, 小于等于 0 表示不限制
+     * @param unit     timeout 的时间单位
+     * @return 汇聚后的结果
+     */
+    public static <R, E extends Exception> Result<R> any(List<? extends SupplierWithThrow<R, E>> tasks,
+                                                            Executor executor, long timeout, TimeUnit unit) {
+        return quorum(1, tasks, executor, timeout, unit);
+    }
+
+    public static <R, E extends Exception> Result<R> quorum(int k, List<? extends SupplierWithThrow<R, E>> tasks) {
+        return quorum(k, tasks, DefaultExecutor.INSTANCE, 0L, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param k        需要成功的任务数, 任务列表为空时只能为 0(即 all 的语义)
+     * @param tasks    待执行的任务
+     * @param executor 执行任务的线程池
+     * @param timeout  最长等待时间, 小于等于 0 表示不限制
+     * @param unit     timeout 的时间单位
+     * @return 汇聚后的结果, k 个任务成功时无异常; 等待超时或被中断时异常为 TimeoutException / InterruptedException;
+     *         否则为第一个失败任务的异常, 包括线程池拒绝的 RejectedExecutionException
+     *         与包装了任务抛出的 Error 的 ExecutionException
+     */
+    public static <R, E extends Exception> Result<R> quorum(int k, @NonNull List<? extends SupplierWithThrow<R, E>> tasks,
+                                                               @NonNull Executor executor, long timeout, @NonNull TimeUnit unit) {
+        int n = tasks.size();
+        if (n == 0 && k == 0) {
+            // all(空列表): 没有需要成功的任务, 直接成功
+            return new Round<R, E>(0, 0).result(null);
+        }
+        if (k < 1 || k > n) {
+            throw new IllegalArgumentException("quorum must be in [1, " + n + "]: " + k);
+        }
+        Round<R, E> round = new Round<>(n, k);
+        List<FutureTask<Void>> futures = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            final int index = i;
+            final SupplierWithThrow<R, E> task = tasks.get(i);
+            FutureTask<Void> future = new FutureTask<>(() -> round.run(index, task), null);
+            futures.add(future);
+            try {
+                executor.execute(future);
+            } catch (RejectedExecutionException e) {
+                round.fail(index, e);
+            }
+        }
+        Exception interrupted = null;
+        try {
+            if (timeout > 0L) {
+                if (!round.done.await(timeout, unit)) {
+                    interrupted = new TimeoutException("fan out timeout after " + timeout + " " + unit);
+                }
+            } else {
+                round.done.await();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            interrupted = e;
+        }
+        for (FutureTask<Void> future : futures) {
+            future.cancel(true);
+        }
+        return round.result(interrupted);
+    }
+
+    /**
+     * 汇聚结果: 值为成功任务的返回值(按任务顺序), 异常为汇聚失败的原因
+     * 异常类型为 Exception 而不是任务声明的异常: 除任务自身的异常外, 还可能是超时、中断、线程池拒绝等汇聚过程的失败
+     */
+    public static final class Result<R> extends PromiseForSupplier<List<R>, Exception> {
+
+        private final List<PromiseForSupplier<R, Exception>> outcomes;
+
+        private final int successCount;
+
+        private Result(List<PromiseForSupplier<R, Exception>> outcomes, int successCount) {
+            this.outcomes = outcomes;
+            this.successCount = successCount;
+        }
+
+        /**
+         * @return 每个任务各自的执行结果, 与任务顺序一致, 未完成而被取消的任务异常为 CancellationException
+         */
+        public List<PromiseForSupplier<R, Exception>> outcomes() {
+            return outcomes;
+        }
+
+        public int successCount() {
+            return successCount;
+        }
+    }
+
+    private static final class Round<R, E extends Exception> {
+
+        private final int n;
+
+        private final int k;
+
+        private final AtomicReferenceArray<PromiseForSupplier<R, Exception>> outcomes;
+
+        private final AtomicInteger successes = new AtomicInteger();
+
+        private final AtomicInteger failures = new AtomicInteger();
+
+        private final AtomicReference<Exception> firstFailure = new AtomicReference<>();
+
+        private final CountDownLatch done = new CountDownLatch(1);
+
+        private Round(int n, int k) {
+            this.n = n;
+            this.k = k;
+            this.outcomes = new AtomicReferenceArray<>(n);
+        }
+
+        private void run(int index, SupplierWithThrow<R, E> task) {
+            if (done.getCount() == 0L) {
+                return;
+            }
+            PromiseForSupplier<R, Exception> promise;
+            try {
+                promise = ThrowsHandler.sup(task::get);
+            } catch (Throwable e) {
+                fail(index, new ExecutionException(e));
+                return;
+            }
+            if (promise.getException() != null) {
+                record(index, promise);
+                return;
+            }
+            outcomes.set(index, promise);
+            if (successes.incrementAndGet() == k) {
+                done.countDown();
+            }
+        }
+
+        private void fail(int index, Exception exception) {
+            PromiseForSupplier<R, Exception> promise = new PromiseForSupplier<>();
+            promise.setThrowable(exception);
+            record(index, promise);
+        }
+
+        private void record(int index, PromiseForSupplier<R, Exception> promise) {
+            outcomes.set(index, promise);
+            firstFailure.compareAndSet(null, promise.getException());
+            if (failures.incrementAndGet() == n - k + 1) {
+                done.countDown();
+            }
+        }
+
+        private Result<R> result(Exception interrupted) {
+            List<PromiseForSupplier<R, Exception>> snapshot = new ArrayList<>(n);
+            List<R> values = new ArrayList<>(n);
+            int successCount = 0;
+            for (int i = 0; i < n; i++) {
+                PromiseForSupplier<R, Exception> promise = outcomes.get(i);
+                if (promise == null) {
+                    promise = new PromiseForSupplier<>();
+                    promise.setThrowable(new CancellationException("fan out task cancelled"));
+                } else if (promise.getException() == null) {
+                    values.add(promise.value());
+                    successCount++;
+                }
+                snapshot.add(promise);
+            }
+            Result<R> result = new Result<>(Collections.unmodifiableList(snapshot), successCount);
+            result.setReturnVal(Collections.unmodifiableList(values));
+            if (successCount < k) {
+                // 超时或中断后被取消的任务可能先记录 InterruptedException, 此时以汇聚本身的失败为准
+                result.setThrowable(interrupted != null ? interrupted : firstFailure.get());
+            }
+            return result;
+        }
+    }
+
+    /**
+     * 未指定线程池时使用的默认线程池, 首次使用时创建
+     */
+    private static final class DefaultExecutor {
+
+        private static final ExecutorService INSTANCE = Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "fan-out-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+}
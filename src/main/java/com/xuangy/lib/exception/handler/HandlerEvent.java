@@ -0,0 +1,38 @@
+package com.xuangy.lib.exception.handler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * @description: ExceptionHandler / ThrowsHandler 包装调用的 JFR 事件
+ *               仅提交耗时超过阈值(默认 10ms, 可在 JFR 配置中调整)的调用, 失败的调用见 {@link HandlerFailureEvent}
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 22:30
+ * @see JfrHandlerEvents
+ */
+@Name("com.xuangy.lib.HandlerCall")
+@Label("Handler Call")
+@Category({"Java Common Utils", "Exception Handler"})
+@Description("A call wrapped by ExceptionHandler or ThrowsHandler")
+@Threshold("10 ms")
+@StackTrace(false)
+class HandlerEvent extends Event {
+
+    @Label("Entry")
+    String entry;
+
+    @Label("Message")
+    String message;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+}
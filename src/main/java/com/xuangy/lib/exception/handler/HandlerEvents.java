@@ -0,0 +1,82 @@
+package com.xuangy.lib.exception.handler;
+
+/**
+ * @description: 包装调用的 JFR 事件记录
+ *               调用开始时 {@link #begin(String)}, 结束时 {@link #success(String)} 或 {@link #failure(String, Exception)}.
+ *               本类不直接引用 jdk.jfr: 首次使用时检查一次 jdk.jfr 能否加载, 可以时通过 {@link JfrHandlerEvents} 记录事件,
+ *               否则(JDK 8u262 之前 / 未包含 jdk.jfr 模块的 jlink 镜像 / 以 --release 8 编译)始终使用空实现.
+ *               两种事件都未开启时 begin 返回共享的空实现, 不创建任何对象.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 22:30
+ */
+abstract class HandlerEvents {
+
+    static final String SUCCESS = "success";
+
+    static final String FAILURE = "failure";
+
+    private static final HandlerEvents NOOP = new HandlerEvents() {
+
+        @Override
+        void success(String message) {
+        }
+
+        @Override
+        void failure(String message, Exception exception) {
+        }
+    };
+
+    /**
+     * @param entry 包装调用的入口, 如 ThrowsHandler.sup
+     * @return 已开始计时的事件, 事件未开启时为空实现
+     */
+    static HandlerEvents begin(String entry) {
+        Factory factory = FactoryHolder.FACTORY;
+        return factory == null ? NOOP : factory.begin(entry);
+    }
+
+    static HandlerEvents noop() {
+        return NOOP;
+    }
+
+    /**
+     * @param message 调用方传入的信息, 可为 null
+     */
+    abstract void success(String message);
+
+    /**
+     * @param message   调用方传入的信息, 可为 null
+     * @param exception 调用抛出的异常
+     */
+    abstract void failure(String message, Exception exception);
+
+    /**
+     * 创建事件记录
+     */
+    interface Factory {
+
+        HandlerEvents begin(String entry);
+    }
+
+    /**
+     * 首次使用时解析 JFR 实现, jdk.jfr 不可用时为 null
+     */
+    private static final class FactoryHolder {
+
+        private static final String JFR_FACTORY = "com.xuangy.lib.exception.handler.JfrHandlerEvents$JfrFactory";
+
+        private static final Factory FACTORY = resolve();
+
+        private static Factory resolve() {
+            ClassLoader loader = HandlerEvents.class.getClassLoader();
+            try {
+                Class.forName("jdk.jfr.Event", false, loader);
+                return (Factory) Class.forName(JFR_FACTORY, true, loader).getDeclaredConstructor().newInstance();
+            } catch (Exception | LinkageError e) {
+                return null;
+            }
+        }
+    }
+
+}
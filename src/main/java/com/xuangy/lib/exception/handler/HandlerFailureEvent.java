@@ -0,0 +1,33 @@
+package com.xuangy.lib.exception.handler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * @description: ExceptionHandler / ThrowsHandler 包装调用失败的 JFR 事件, 不设耗时阈值, 每次失败都会提交
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 22:30
+ * @see JfrHandlerEvents
+ */
+@Name("com.xuangy.lib.HandlerFailure")
+@Label("Handler Failure")
+@Category({"Java Common Utils", "Exception Handler"})
+@Description("A failed call wrapped by ExceptionHandler or ThrowsHandler")
+class HandlerFailureEvent extends Event {
+
+    @Label("Entry")
+    String entry;
+
+    @Label("Message")
+    String message;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Exception Class")
+    Class<?> exceptionClass;
+}
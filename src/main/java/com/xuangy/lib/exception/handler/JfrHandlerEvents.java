@@ -0,0 +1,64 @@
+package com.xuangy.lib.exception.handler;
+
+import jdk.jfr.EventType;
+
+/**
+ * @description: 基于 JFR 的事件记录, 只通过 {@link HandlerEvents} 反射加载, 其余类不直接引用
+ *               成功的调用只在耗时超过阈值时才会填充字段并提交.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 22:30
+ */
+final class JfrHandlerEvents extends HandlerEvents {
+
+    private final String entry;
+
+    private final HandlerEvent call = new HandlerEvent();
+
+    private final HandlerFailureEvent failure = new HandlerFailureEvent();
+
+    private JfrHandlerEvents(String entry) {
+        this.entry = entry;
+        call.begin();
+        failure.begin();
+    }
+
+    @Override
+    void success(String message) {
+        call.end();
+        if (call.shouldCommit()) {
+            call.entry = entry;
+            call.message = message;
+            call.outcome = SUCCESS;
+            call.commit();
+        }
+    }
+
+    @Override
+    void failure(String message, Exception exception) {
+        failure.end();
+        if (failure.shouldCommit()) {
+            failure.entry = entry;
+            failure.message = message;
+            failure.outcome = FAILURE;
+            failure.exceptionClass = exception.getClass();
+            failure.commit();
+        }
+    }
+
+    static final class JfrFactory implements Factory {
+
+        private final EventType callType = EventType.getEventType(HandlerEvent.class);
+
+        private final EventType failureType = EventType.getEventType(HandlerFailureEvent.class);
+
+        @Override
+        public HandlerEvents begin(String entry) {
+            if (!callType.isEnabled() && !failureType.isEnabled()) {
+                return noop();
+            }
+            return new JfrHandlerEvents(entry);
+        }
+    }
+
+}
@@ -0,0 +1,99 @@
+package com.xuangy.lib.exception.handler;
+
+import com.xuangy.lib.exception.handler.ThrowsHandler.PromiseForSupplier;
+import com.xuangy.lib.exception.handler.common.SupplierWithThrow;
+import lombok.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * @description: 相同 key 的并发调用合并为一次执行(single-flight)
+ *               同一时刻对同一个 key 只会有一个线程真正执行 supplier, 其余并发调用者等待该次执行,
+ *               并拿到同一个 {@link PromiseForSupplier} 结果(返回值或异常).
+ *               执行结束后 key 会从在途表中移除, 之后的调用会重新执行 supplier.
+ *               supplier 内部在同一线程中再次对同一 key 调用会抛出 {@link IllegalStateException}(否则会等待自己而死锁);
+ *               跨线程、跨 key 的循环等待(A 等 B, B 等 A)无法检测, 需由调用方避免.
+ * <pre>
+ * private static final SingleFlight&lt;Long, User, IOException&gt; USER_LOADER = new SingleFlight&lt;&gt;();
+ *
+ * User user = USER_LOADER.sup(userId, () -&gt; remote.loadUser(userId))
+ *         .logThrowable("load user error")
+ *         .value();
+ * </pre>
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 10:12
+ */
+public class SingleFlight<K, R, E extends Exception> {
+
+    /**
+     * 在途调用表, key -> 正在执行中的结果
+     */
+    private final ConcurrentMap<K, Call<R, E>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * 执行 supplier, 同一 key 的并发调用共享同一次执行结果
+     *
+     * @param key      合并调用的 key
+     * @param supplier 运行函数
+     * @return 对函数执行后的异常进行捕获, 并封装成类; 同一批并发调用者拿到的是同一个对象
+     */
+    public PromiseForSupplier<R, E> sup(@NonNull K key, SupplierWithThrow<R, E> supplier) {
+        Call<R, E> call = inFlight.get(key);
+        if (call == null) {
+            Call<R, E> created = new Call<>();
+            call = inFlight.putIfAbsent(key, created);
+            if (call == null) {
+                return execute(key, created, supplier);
+            }
+        }
+        if (call.owner == Thread.currentThread()) {
+            throw new IllegalStateException("re-entrant single-flight call on key: " + key);
+        }
+        return await(call);
+    }
+
+    /**
+     * @return 当前正在执行中的 key 数量
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private PromiseForSupplier<R, E> execute(K key, Call<R, E> call, SupplierWithThrow<R, E> supplier) {
+        try {
+            PromiseForSupplier<R, E> promise = ThrowsHandler.sup(supplier);
+            call.complete(promise);
+            return promise;
+        } catch (Error e) {
+            // ThrowsHandler.sup 只捕获 Exception, Error 需要同样传递给等待中的调用者
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private PromiseForSupplier<R, E> await(CompletableFuture<PromiseForSupplier<R, E>> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 一次在途调用, 记录执行 supplier 的线程, 用于检测同一线程的重入
+     */
+    private static final class Call<R, E extends Exception> extends CompletableFuture<PromiseForSupplier<R, E>> {
+
+        private final Thread owner = Thread.currentThread();
+    }
+
+}
@@ -0,0 +1,221 @@
+package com.xuangy.lib.exception.handler;
+
+import com.xuangy.lib.log.Log;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.Setter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 异常日志的堆栈输出方式
+ *               FULL(默认): 与之前一致, 异常交给日志框架输出完整堆栈.
+ *               BOUNDED: 只输出栈顶 topFrames 个帧, 以及类名以 packages 中任一前缀开头的帧, 其余帧折叠为省略数量;
+ *                        堆栈在日志真正输出时才渲染, 日志级别未开启时不做任何渲染.
+ *                        相同的堆栈(异常类型与保留的帧均相同, 包括 cause)按指纹去重:
+ *                        第一次输出完整的截断堆栈和 id, 之后只输出异常信息、id 与出现次数;
+ *                        距上次完整输出超过 reprintInterval(默认 10 分钟)时再完整输出一次, 便于按时间段检索日志.
+ *                        去重表最多 4096 条, 已满时清理超过 reprintInterval 未再出现的堆栈(每秒最多清理一次),
+ *                        清理后仍然已满时新的堆栈不去重, 每次都输出截断堆栈.
+ *               作用于 {@link ThrowsHandler.PromiseForRunnable#logThrowable(String)} 与
+ *               {@link ExceptionHandler#simpleExceptionForRun} / {@link ExceptionHandler#simpleExceptionForSup} 打印的日志.
+ * <pre>
+ * StackCapture.setPackages("com.mycorp.");
+ * StackCapture.setTopFrames(8);
+ * StackCapture.setMode(StackCapture.Mode.BOUNDED);
+ * </pre>
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 15:00
+ */
+public final class StackCapture {
+
+    /**
+     * 去重表的容量, 已满且无法清理出空位时新的堆栈不再去重, 每次都输出截断堆栈
+     */
+    private static final int MAX_INTERNED = 4096;
+
+    /**
+     * 去重表已满时两次清理的最小间隔
+     */
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private static final AtomicLong NEXT_SWEEP_NANOS = new AtomicLong(System.nanoTime());
+
+    private static final String[] NO_PACKAGES = new String[0];
+
+    private static final ConcurrentMap<Long, Interned> INTERNED = new ConcurrentHashMap<>();
+
+    private static final AtomicInteger INTERNED_SIZE = new AtomicInteger();
+
+    @Getter
+    @Setter
+    @NonNull
+    private static volatile Mode mode = Mode.FULL;
+
+    @Getter
+    private static volatile int topFrames = 10;
+
+    private static volatile String[] packages = NO_PACKAGES;
+
+    private static volatile long reprintIntervalNanos = TimeUnit.MINUTES.toNanos(10);
+
+    private StackCapture() {
+    }
+
+    /**
+     * @param topFrames BOUNDED 模式下保留的栈顶帧数
+     */
+    public static void setTopFrames(int topFrames) {
+        if (topFrames < 0) {
+            throw new IllegalArgumentException("topFrames must not be negative: " + topFrames);
+        }
+        StackCapture.topFrames = topFrames;
+    }
+
+    /**
+     * @param packages BOUNDED 模式下额外保留的帧的类名前缀, 如 "com.mycorp."
+     */
+    public static void setPackages(@NonNull String... packages) {
+        StackCapture.packages = packages.clone();
+    }
+
+    public static String[] getPackages() {
+        return packages.clone();
+    }
+
+    /**
+     * @param interval 同一堆栈两次完整输出的最小间隔, 也是去重表中堆栈的过期时间
+     * @param unit     interval 的时间单位
+     */
+    public static void setReprintInterval(long interval, @NonNull TimeUnit unit) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("interval must be positive: " + interval);
+        }
+        reprintIntervalNanos = unit.toNanos(interval);
+    }
+
+    public static long getReprintInterval(@NonNull TimeUnit unit) {
+        return unit.convert(reprintIntervalNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return 已去重的堆栈数量
+     */
+    public static int internedCount() {
+        return INTERNED_SIZE.get();
+    }
+
+    /**
+     * 清空去重表, 之后每种堆栈会重新输出一次完整的截断堆栈
+     */
+    public static void clearInterned() {
+        INTERNED.clear();
+        INTERNED_SIZE.set(0);
+    }
+
+    static void error(Log log, String message, Throwable throwable) {
+        if (mode == Mode.FULL) {
+            log.error(message, throwable);
+        } else {
+            log.error("{}{}", message == null ? "" : message, new BoundedStackTrace(throwable, topFrames, packages));
+        }
+    }
+
+    static void warn(Log log, String message, Throwable throwable) {
+        if (mode == Mode.FULL) {
+            log.warn(message, throwable);
+        } else {
+            log.warn("{}{}", message == null ? "" : message, new BoundedStackTrace(throwable, topFrames, packages));
+        }
+    }
+
+    /**
+     * @param fingerprint 堆栈指纹
+     * @return 去重表中的记录, 去重表已满且指纹不存在时返回 null
+     */
+    static Interned intern(long fingerprint) {
+        long now = System.nanoTime();
+        Interned interned = INTERNED.get(fingerprint);
+        if (interned == null) {
+            if (INTERNED_SIZE.get() >= MAX_INTERNED && !sweep(now)) {
+                return null;
+            }
+            Interned created = new Interned(Long.toHexString(fingerprint), now);
+            interned = INTERNED.putIfAbsent(fingerprint, created);
+            if (interned == null) {
+                INTERNED_SIZE.incrementAndGet();
+                interned = created;
+            }
+        }
+        interned.lastSeenNanos = now;
+        return interned;
+    }
+
+    /**
+     * @return true: 距该堆栈上次完整输出已超过 reprintInterval, 本次需要完整输出
+     */
+    static boolean reprintDue(Interned interned) {
+        long now = System.nanoTime();
+        long last = interned.lastPrintedNanos.get();
+        return now - last >= reprintIntervalNanos && interned.lastPrintedNanos.compareAndSet(last, now);
+    }
+
+    /**
+     * 清理超过 reprintInterval 未出现的堆栈, 距上次清理不足 1 秒时不清理
+     *
+     * @return true: 去重表有空位
+     */
+    private static boolean sweep(long now) {
+        long next = NEXT_SWEEP_NANOS.get();
+        if (now - next < 0L || !NEXT_SWEEP_NANOS.compareAndSet(next, now + SWEEP_INTERVAL_NANOS)) {
+            return false;
+        }
+        long expiry = reprintIntervalNanos;
+        for (Map.Entry<Long, Interned> entry : INTERNED.entrySet()) {
+            if (now - entry.getValue().lastSeenNanos >= expiry && INTERNED.remove(entry.getKey(), entry.getValue())) {
+                INTERNED_SIZE.decrementAndGet();
+            }
+        }
+        return INTERNED_SIZE.get() < MAX_INTERNED;
+    }
+
+    /**
+     * 堆栈输出方式
+     */
+    public enum Mode {
+
+        /**
+         * 输出完整堆栈
+         */
+        FULL,
+
+        /**
+         * 输出截断、去重的堆栈
+         */
+        BOUNDED
+    }
+
+    static final class Interned {
+
+        final String id;
+
+        final AtomicLong count = new AtomicLong();
+
+        private final AtomicLong lastPrintedNanos;
+
+        private volatile long lastSeenNanos;
+
+        private Interned(String id, long now) {
+            this.id = id;
+            this.lastPrintedNanos = new AtomicLong(now);
+            this.lastSeenNanos = now;
+        }
+    }
+
+}
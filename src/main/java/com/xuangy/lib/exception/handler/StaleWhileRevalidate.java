@@ -0,0 +1,298 @@
+package com.xuangy.lib.exception.handler;
+
+import com.xuangy.lib.exception.handler.common.SupplierWithThrow;
+import com.xuangy.lib.log.Log;
+import com.xuangy.lib.log.LogSinks;
+import com.xuangy.lib.ratelimit.TimeSource;
+import lombok.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @description: 按名称记住 supplier 最近一次成功的返回值, 失败时以该值兜底(stale-while-revalidate)
+ *               有值时直接返回该值, 不在调用线程中执行 supplier; 值的年龄超过 freshness 时在后台刷新,
+ *               同一名称同一时刻最多只有一个刷新在执行, 刷新失败仅打印日志并继续使用旧值.
+ *               尚无成功值时同步执行 supplier, 同一名称的并发冷启动合并为一次执行, 失败则返回 defaultValue.
+ *               supplier 失败后的 failureBackoff 内不再重试(冷启动直接返回 defaultValue, 也不发起后台刷新).
+ *               一个名称只能绑定一个 supplier 调用点(以 supplier 的类区分), 用另一个 supplier 复用同一名称会抛出
+ *               {@link IllegalArgumentException}, 避免不同返回值类型共享同一个值.
+ * <pre>
+ * Config config = ExceptionHandler.ignoreExceptionWithLastValue("remote-config", remote::load, 30_000L, Config.EMPTY);
+ * long age = StaleWhileRevalidate.defaultInstance().ageMillis("remote-config");
+ * </pre>
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 23:10
+ */
+public class StaleWhileRevalidate {
+
+    private static final Log log = LogSinks.getLog(StaleWhileRevalidate.class);
+
+    /**
+     * 默认的失败退避时间(毫秒)
+     */
+    private static final long DEFAULT_FAILURE_BACKOFF_MILLIS = 1_000L;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final Executor refreshExecutor;
+
+    private final long failureBackoffNanos;
+
+    private final TimeSource timeSource;
+
+    /**
+     * @param refreshExecutor 执行后台刷新的线程池
+     */
+    public StaleWhileRevalidate(Executor refreshExecutor) {
+        this(refreshExecutor, DEFAULT_FAILURE_BACKOFF_MILLIS, TimeUnit.MILLISECONDS, TimeSource.system());
+    }
+
+    /**
+     * @param refreshExecutor 执行后台刷新的线程池
+     * @param failureBackoff  supplier 失败后多久内不再重试
+     * @param unit            failureBackoff 的时间单位
+     * @param timeSource      计算值年龄与退避使用的时间源
+     */
+    public StaleWhileRevalidate(@NonNull Executor refreshExecutor, long failureBackoff, @NonNull TimeUnit unit, @NonNull TimeSource timeSource) {
+        if (failureBackoff < 0) {
+            throw new IllegalArgumentException("failureBackoff must not be negative: " + failureBackoff);
+        }
+        this.refreshExecutor = refreshExecutor;
+        this.failureBackoffNanos = unit.toNanos(failureBackoff);
+        this.timeSource = timeSource;
+    }
+
+    /**
+     * @return 进程内共享的默认实例, 后台刷新使用守护线程
+     */
+    public static StaleWhileRevalidate defaultInstance() {
+        return DefaultInstance.INSTANCE;
+    }
+
+    /**
+     * @param name         supplier 名称, 同一名称共享最近一次成功的值
+     * @param supplier     带有返回值和throw的函数接口
+     * @param freshness    值的新鲜期, 超过后在后台刷新
+     * @param unit         freshness 的时间单位
+     * @param defaultValue 尚无成功值且 supplier 执行失败时的返回值
+     * @param <T>          supplier的提供的返回值类型
+     * @return 最近一次成功的值, 或 defaultValue
+     */
+    public <T> T get(String name, SupplierWithThrow<T, ? extends Exception> supplier, long freshness, TimeUnit unit, T defaultValue) {
+        Snapshot<T> snapshot = snapshot(name, supplier, freshness, unit);
+        return snapshot.hasValue() ? snapshot.getValue() : defaultValue;
+    }
+
+    /**
+     * 与 {@link #get(String, SupplierWithThrow, long, TimeUnit, Object)} 相同, 同时返回值的年龄, 便于调用方自行决定是否使用
+     *
+     * @return 值的快照, 尚无成功值且 supplier 执行失败时 {@link Snapshot#hasValue()} 为 false
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Snapshot<T> snapshot(@NonNull String name, @NonNull SupplierWithThrow<T, ? extends Exception> supplier, long freshness, @NonNull TimeUnit unit) {
+        Entry entry = entries.computeIfAbsent(name, k -> new Entry(supplier.getClass()));
+        if (entry.supplierType != supplier.getClass()) {
+            throw new IllegalArgumentException("name " + name + " is already bound to supplier " + entry.supplierType.getName()
+                    + ", got " + supplier.getClass().getName());
+        }
+        Snapshot<T> current = (Snapshot<T>) entry.snapshot;
+        if (current == null) {
+            return coldLoad(name, entry, supplier);
+        }
+        if (current.ageNanos() > unit.toNanos(freshness) && !backingOff(entry)) {
+            refresh(name, entry, supplier);
+        }
+        return current;
+    }
+
+    /**
+     * @param name supplier 名称
+     * @return 最近一次成功的值的年龄(毫秒), 尚无成功值时返回 -1
+     */
+    public long ageMillis(String name) {
+        Entry entry = entries.get(name);
+        Snapshot<?> snapshot = entry == null ? null : entry.snapshot;
+        return snapshot == null ? -1L : TimeUnit.NANOSECONDS.toMillis(snapshot.ageNanos());
+    }
+
+    /**
+     * 丢弃记住的值
+     *
+     * @param name supplier 名称
+     */
+    public void invalidate(String name) {
+        entries.remove(name);
+    }
+
+    /**
+     * 尚无成功值时同步加载, 同一名称同一时刻只有一个调用者执行 supplier, 其余调用者等待并共享该次结果
+     */
+    @SuppressWarnings("unchecked")
+    private <T> Snapshot<T> coldLoad(String name, Entry entry, SupplierWithThrow<T, ? extends Exception> supplier) {
+        while (true) {
+            if (backingOff(entry)) {
+                return Snapshot.empty();
+            }
+            CompletableFuture<Snapshot<?>> call = entry.loading.get();
+            if (call != null) {
+                return (Snapshot<T>) await(call);
+            }
+            CompletableFuture<Snapshot<?>> created = new CompletableFuture<>();
+            if (!entry.loading.compareAndSet(null, created)) {
+                continue;
+            }
+            try {
+                // 抢到加载权前可能刚有一次加载完成
+                Snapshot<T> loaded = (Snapshot<T>) entry.snapshot;
+                if (loaded == null) {
+                    loaded = load(name, entry, supplier);
+                }
+                created.complete(loaded);
+                return loaded;
+            } catch (Error e) {
+                created.completeExceptionally(e);
+                throw e;
+            } finally {
+                entry.loading.compareAndSet(created, null);
+            }
+        }
+    }
+
+    private Snapshot<?> await(CompletableFuture<Snapshot<?>> call) {
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private <T> Snapshot<T> load(String name, Entry entry, SupplierWithThrow<T, ? extends Exception> supplier) {
+        try {
+            T value = supplier.get();
+            Snapshot<T> snapshot = new Snapshot<>(value, timeSource.nanoTime(), timeSource);
+            entry.snapshot = snapshot;
+            entry.retryAtNanos = null;
+            return snapshot;
+        } catch (Exception e) {
+            entry.retryAtNanos = timeSource.nanoTime() + failureBackoffNanos;
+            log.warn("stale-while-revalidate supplier error, name: {}", name, e);
+            return Snapshot.empty();
+        }
+    }
+
+    private boolean backingOff(Entry entry) {
+        Long retryAt = entry.retryAtNanos;
+        return retryAt != null && timeSource.nanoTime() - retryAt < 0;
+    }
+
+    private <T> void refresh(String name, Entry entry, SupplierWithThrow<T, ? extends Exception> supplier) {
+        if (!entry.refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    load(name, entry, supplier);
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            entry.refreshing.set(false);
+            log.warn("stale-while-revalidate refresh rejected, name: {}", name, e);
+        }
+    }
+
+    /**
+     * 最近一次成功的值及其获取时间
+     */
+    public static final class Snapshot<T> {
+
+        private static final Snapshot<?> EMPTY = new Snapshot<>(null, Long.MIN_VALUE, TimeSource.system());
+
+        private final T value;
+
+        private final long loadedNanos;
+
+        private final TimeSource timeSource;
+
+        private Snapshot(T value, long loadedNanos, TimeSource timeSource) {
+            this.value = value;
+            this.loadedNanos = loadedNanos;
+            this.timeSource = timeSource;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Snapshot<T> empty() {
+            return (Snapshot<T>) EMPTY;
+        }
+
+        public boolean hasValue() {
+            return this != EMPTY;
+        }
+
+        public T getValue() {
+            return value;
+        }
+
+        /**
+         * @return 值的年龄(毫秒), 无值时返回 -1
+         */
+        public long ageMillis() {
+            return hasValue() ? TimeUnit.NANOSECONDS.toMillis(ageNanos()) : -1L;
+        }
+
+        private long ageNanos() {
+            return timeSource.nanoTime() - loadedNanos;
+        }
+    }
+
+    private static final class Entry {
+
+        /**
+         * 绑定到该名称的 supplier 的类
+         */
+        private final Class<?> supplierType;
+
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        /**
+         * 在途的冷启动加载
+         */
+        private final AtomicReference<CompletableFuture<Snapshot<?>>> loading = new AtomicReference<>();
+
+        private volatile Snapshot<?> snapshot;
+
+        /**
+         * 最近一次失败后允许重试的时间, 为 null 表示不在退避中
+         */
+        private volatile Long retryAtNanos;
+
+        private Entry(Class<?> supplierType) {
+            this.supplierType = supplierType;
+        }
+    }
+
+    private static final class DefaultInstance {
+
+        private static final StaleWhileRevalidate INSTANCE = new StaleWhileRevalidate(Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "stale-while-revalidate-refresh");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+}
@@ -1,11 +1,12 @@
 package com.xuangy.lib.exception.handler;
 
 import com.xuangy.lib.exception.handler.common.*;
+import com.xuangy.lib.log.Log;
+import com.xuangy.lib.log.LogSinks;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.NonNull;
-import lombok.extern.slf4j.Slf4j;
 
 import java.util.Optional;
 import java.util.function.Consumer;
@@ -17,9 +18,10 @@ import java.util.function.Consumer;
  * @date: 2021/12/20 14:36
  */
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
-@Slf4j
 public class ThrowsHandler {
 
+    private static final Log log = LogSinks.getLog(ThrowsHandler.class);
+
     /**
      * <b>Description : </b> 异常封装处理Bean, 用于没有返回值的异常封装
      * <p>
@@ -73,6 +75,17 @@ public class ThrowsHandler {
             return this;
         }
 
+        /**
+         * 按预编译的异常处理表对异常进行处理, 只执行最具体的一个处理方法
+         *
+         * @param catchTable 异常处理表
+         * @return 链式调用, 返回对象本身
+         */
+        public PromiseForRunnable<E> catCh(@NonNull CatchTable catchTable) {
+            catchTable.dispatch(this.exception);
+            return this;
+        }
+
         /**
          * 如果有异常, 则对异常进行处理
          *
@@ -101,7 +114,7 @@ public class ThrowsHandler {
          */
         public PromiseForRunnable<E> logThrowable() {
             if (this.exception != null) {
-                log.error("", this.exception);
+                StackCapture.error(log, "", this.exception);
             }
             return this;
         }
@@ -113,7 +126,7 @@ public class ThrowsHandler {
          */
         public PromiseForRunnable<E> logThrowable(String message) {
             if (this.exception != null) {
-                log.error(message, this.exception);
+                StackCapture.error(log, message, this.exception);
             }
             return this;
         }
@@ -179,7 +192,10 @@ public class ThrowsHandler {
 
         private R returnVal;
 
-        private void setReturnVal(R returnVal) {
+        /**
+         * 包内可见, 供 ThrowsHandler 自身以及 FanOut / BatchLoader 按汇总结果构造 promise
+         */
+        void setReturnVal(R returnVal) {
             this.returnVal = returnVal;
         }
 
@@ -213,6 +229,15 @@ public class ThrowsHandler {
             return this;
         }
 
+        /**
+         * {@link PromiseForRunnable#catCh(CatchTable)}
+         */
+        @Override
+        public PromiseForSupplier<R, E> catCh(@NonNull CatchTable catchTable) {
+            super.catCh(catchTable);
+            return this;
+        }
+
         /**
          * {@link PromiseForRunnable#catchAll(Consumer)}
          */
@@ -237,7 +262,7 @@ public class ThrowsHandler {
         @Override
         public PromiseForSupplier<R, E> logThrowable() {
             if (this.exception != null) {
-                log.error("exc", this.exception);
+                StackCapture.error(log, "exc", this.exception);
             }
             return this;
         }
@@ -248,7 +273,7 @@ public class ThrowsHandler {
         @Override
         public PromiseForSupplier<R, E> logThrowable(String message) {
             if (this.exception != null) {
-                log.error(message, this.exception);
+                StackCapture.error(log, message, this.exception);
             }
             return this;
         }
@@ -300,9 +325,12 @@ public class ThrowsHandler {
      */
     public static <E extends Exception> PromiseForRunnable<E> run(RunnableWithThrow<E> runnable) {
         PromiseForRunnable<E> promise = new PromiseForRunnable<>();
+        HandlerEvents events = HandlerEvents.begin("ThrowsHandler.run");
         try {
             runnable.run();
+            events.success(null);
         } catch (Exception e) {
+            events.failure(null, e);
             promise.setThrowable(e);
         }
         return promise;
@@ -317,9 +345,12 @@ public class ThrowsHandler {
      */
     public static <E extends Exception> PromiseForRunnable<E> run(RunnableWithThrow<E> runnable, Exception businessException) {
         PromiseForRunnable<E> promise = new PromiseForRunnable<>();
+        HandlerEvents events = HandlerEvents.begin("ThrowsHandler.run");
         try {
             runnable.run();
+            events.success(businessException.getMessage());
         } catch (Exception e) {
+            events.failure(businessException.getMessage(), e);
             businessException.initCause(e);
             promise.setThrowable(businessException);
         }
@@ -337,9 +368,12 @@ public class ThrowsHandler {
      */
     public static <P, E extends Exception> PromiseForRunnable<E> con(P p, ConsumerWithThrow<P, E> consumer) {
         PromiseForRunnable<E> promise = new PromiseForRunnable<>();
+        HandlerEvents events = HandlerEvents.begin("ThrowsHandler.con");
         try {
             consumer.accept(p);
+            events.success(null);
         } catch (Exception e) {
+            events.failure(null, e);
             promise.setThrowable(e);
         }
         return promise;
@@ -354,9 +388,12 @@ public class ThrowsHandler {
     public static <R, E extends Exception> PromiseForSupplier<R, E> sup(SupplierWithThrow<R, E> supplier) {
         PromiseForSupplier<R, E> promise = new PromiseForSupplier<>();
         R r = null;
+        HandlerEvents events = HandlerEvents.begin("ThrowsHandler.sup");
         try {
             r = supplier.get();
+            events.success(null);
         } catch (Exception e) {
+            events.failure(null, e);
             promise.setThrowable(e);
         }
         promise.setReturnVal(r);
@@ -374,9 +411,12 @@ public class ThrowsHandler {
     public static <P, R, E extends Exception> PromiseForSupplier<R, E> fun(P p, FunctionWithThrow<P, R, E> function) {
         PromiseForSupplier<R, E> promise = new PromiseForSupplier<>();
         R r = null;
+        HandlerEvents events = HandlerEvents.begin("ThrowsHandler.fun");
         try {
             r = function.apply(p);
+            events.success(null);
         } catch (Exception e) {
+            events.failure(null, e);
             promise.setThrowable(e);
         }
         promise.setReturnVal(r);
@@ -1,7 +1,8 @@
 package com.xuangy.lib.exception.handler.common;
 
+import com.xuangy.lib.log.Log;
+import com.xuangy.lib.log.LogSinks;
 import lombok.Setter;
-import lombok.extern.slf4j.Slf4j;
 
 /**
  * @description: 异常打印工具类
@@ -11,9 +12,10 @@ import lombok.extern.slf4j.Slf4j;
  * @see java.util.function.Consumer
  */
 
-@Slf4j
 public class PrintTool {
 
+    private static final Log log = LogSinks.getLog(PrintTool.class);
+
     private static final String DIRECTOR_STRING = " ==> ";
 
     enum Level {
@@ -0,0 +1,122 @@
+package com.xuangy.lib.log;
+
+/**
+ * @description: 库内各类使用的日志门面, 用法与 SLF4J 的 Logger 一致
+ *               所有输出都转交给 {@link LogSinks} 在类初始化时确定的 {@link LogSink}, 创建时绑定来源.
+ *               固定参数个数的重载先检查级别, 级别未开启时不创建参数数组.
+ * <pre>
+ * private static final Log log = LogSinks.getLog(ThrowsHandler.class);
+ * </pre>
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 09:30
+ */
+public final class Log {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    private final LogSink sink;
+
+    private final String source;
+
+    Log(LogSink sink, String source) {
+        this.sink = sink;
+        this.source = source;
+    }
+
+    public boolean isEnabled(LogLevel level) {
+        return sink.isEnabled(level, source);
+    }
+
+    public boolean isDebugEnabled() {
+        return sink.isEnabled(LogLevel.DEBUG, source);
+    }
+
+    public void error(String format) {
+        log(LogLevel.ERROR, format);
+    }
+
+    public void error(String format, Object arg) {
+        log(LogLevel.ERROR, format, arg);
+    }
+
+    public void error(String format, Object arg1, Object arg2) {
+        log(LogLevel.ERROR, format, arg1, arg2);
+    }
+
+    public void error(String format, Object... args) {
+        logArray(LogLevel.ERROR, format, args);
+    }
+
+    public void warn(String format) {
+        log(LogLevel.WARN, format);
+    }
+
+    public void warn(String format, Object arg) {
+        log(LogLevel.WARN, format, arg);
+    }
+
+    public void warn(String format, Object arg1, Object arg2) {
+        log(LogLevel.WARN, format, arg1, arg2);
+    }
+
+    public void warn(String format, Object... args) {
+        logArray(LogLevel.WARN, format, args);
+    }
+
+    public void info(String format) {
+        log(LogLevel.INFO, format);
+    }
+
+    public void info(String format, Object arg) {
+        log(LogLevel.INFO, format, arg);
+    }
+
+    public void info(String format, Object arg1, Object arg2) {
+        log(LogLevel.INFO, format, arg1, arg2);
+    }
+
+    public void info(String format, Object... args) {
+        logArray(LogLevel.INFO, format, args);
+    }
+
+    public void debug(String format) {
+        log(LogLevel.DEBUG, format);
+    }
+
+    public void debug(String format, Object arg) {
+        log(LogLevel.DEBUG, format, arg);
+    }
+
+    public void debug(String format, Object arg1, Object arg2) {
+        log(LogLevel.DEBUG, format, arg1, arg2);
+    }
+
+    public void debug(String format, Object... args) {
+        logArray(LogLevel.DEBUG, format, args);
+    }
+
+    private void log(LogLevel level, String format) {
+        if (sink.isEnabled(level, source)) {
+            sink.log(level, source, format, NO_ARGS);
+        }
+    }
+
+    private void log(LogLevel level, String format, Object arg) {
+        if (sink.isEnabled(level, source)) {
+            sink.log(level, source, format, arg);
+        }
+    }
+
+    private void log(LogLevel level, String format, Object arg1, Object arg2) {
+        if (sink.isEnabled(level, source)) {
+            sink.log(level, source, format, arg1, arg2);
+        }
+    }
+
+    private void logArray(LogLevel level, String format, Object[] args) {
+        if (sink.isEnabled(level, source)) {
+            sink.log(level, source, format, args);
+        }
+    }
+}
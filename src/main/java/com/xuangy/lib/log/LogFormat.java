@@ -0,0 +1,38 @@
+package com.xuangy.lib.log;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * @description: 按 SLF4J 的规则格式化日志: {} 依次替换为参数, 多余的最后一个 Throwable 参数输出为异常堆栈
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 09:30
+ */
+final class LogFormat {
+
+    private static final String PLACEHOLDER = "{}";
+
+    private LogFormat() {
+    }
+
+    static String format(String format, Object... args) {
+        String pattern = format == null ? "" : format;
+        int argCount = args == null ? 0 : args.length;
+        StringBuilder sb = new StringBuilder(pattern.length() + 32);
+        int from = 0;
+        int used = 0;
+        int end;
+        while (used < argCount && (end = pattern.indexOf(PLACEHOLDER, from)) >= 0) {
+            sb.append(pattern, from, end).append(args[used++]);
+            from = end + PLACEHOLDER.length();
+        }
+        sb.append(pattern, from, pattern.length());
+        if (used < argCount && args[argCount - 1] instanceof Throwable) {
+            StringWriter stack = new StringWriter();
+            ((Throwable) args[argCount - 1]).printStackTrace(new PrintWriter(stack));
+            sb.append(System.lineSeparator()).append(stack);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,11 @@
+package com.xuangy.lib.log;
+
+/**
+ * @description: 日志级别
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 09:30
+ */
+public enum LogLevel {
+    ERROR, WARN, INFO, DEBUG
+}
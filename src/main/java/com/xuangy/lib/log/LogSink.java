@@ -0,0 +1,38 @@
+package com.xuangy.lib.log;
+
+/**
+ * @description: 日志输出 SPI, 库内所有日志都经由该接口输出
+ *               format 使用 {} 占位, 与 SLF4J 一致: 参数个数多于占位符且最后一个参数为 Throwable 时, 视为异常堆栈.
+ *               实现需要是线程安全的, 并提供无参构造方法以便通过 ServiceLoader 或系统属性加载.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 09:30
+ * @see LogSinks
+ */
+public interface LogSink {
+
+    /**
+     * @param level  日志级别
+     * @param source 日志来源, 通常为类名
+     * @return true: 该级别的日志会被输出
+     */
+    boolean isEnabled(LogLevel level, String source);
+
+    /**
+     * @param level  日志级别
+     * @param source 日志来源, 通常为类名
+     * @param format 日志格式, 使用 {} 占位
+     * @param args   参数, 最后一个参数可以是 Throwable
+     */
+    void log(LogLevel level, String source, String format, Object... args);
+
+    /**
+     * 创建 {@link Log} 时调用一次, 实现可以在此解析并缓存来源对应的底层 logger, 避免每次输出都按名称查找
+     *
+     * @param source 日志来源, 通常为类名
+     * @return 绑定到该来源的 LogSink, 之后的调用仍会传入同一个 source; 默认返回自身
+     */
+    default LogSink bind(String source) {
+        return this;
+    }
+}
@@ -0,0 +1,113 @@
+package com.xuangy.lib.log;
+
+import java.util.Iterator;
+import java.util.ServiceLoader;
+
+/**
+ * @description: 确定库内使用的 {@link LogSink}, 只在类初始化时解析一次并保存在 static final 字段中
+ *               解析顺序:
+ *               1. 系统属性 xuangy.log.sink: slf4j / stderr / noop / ring, 或 LogSink 实现类的全限定名;
+ *               2. ServiceLoader 发现的第一个 LogSink 实现;
+ *               3. classpath 中存在 slf4j-api 时使用 {@link Slf4jLogSink};
+ *               4. 以上均不满足时使用 {@link StderrLogSink}, 被吞掉的异常仍会输出到标准错误流.
+ *               {@link NoopLogSink} 只在显式配置 xuangy.log.sink=noop 时使用.
+ *               解析出错(如配置的类不存在)时退回到 slf4j 或 stderr, 并通过退回的 LogSink 记录一条 WARN 日志.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 09:30
+ */
+public final class LogSinks {
+
+    public static final String SINK_PROPERTY = "xuangy.log.sink";
+
+    private static final String SLF4J_FACTORY = "org.slf4j.LoggerFactory";
+
+    private static final String SLF4J_SINK = "com.xuangy.lib.log.Slf4jLogSink";
+
+    static final LogSink SINK = resolve();
+
+    private LogSinks() {
+    }
+
+    /**
+     * @return 当前使用的 LogSink
+     */
+    public static LogSink sink() {
+        return SINK;
+    }
+
+    /**
+     * @param type 日志来源类
+     * @return 该类使用的日志门面
+     */
+    public static Log getLog(Class<?> type) {
+        String source = type.getName();
+        return new Log(SINK.bind(source), source);
+    }
+
+    private static LogSink resolve() {
+        String configured = System.getProperty(SINK_PROPERTY);
+        try {
+            if (configured != null && !configured.trim().isEmpty()) {
+                return byName(configured.trim());
+            }
+            Iterator<LogSink> services = ServiceLoader.load(LogSink.class, LogSinks.class.getClassLoader()).iterator();
+            if (services.hasNext()) {
+                return services.next();
+            }
+            if (present(SLF4J_FACTORY)) {
+                return instantiate(SLF4J_SINK);
+            }
+        } catch (Exception | LinkageError e) {
+            LogSink fallback = fallback();
+            fallback.log(LogLevel.WARN, LogSinks.class.getName(), "failed to resolve log sink: {}, fall back to {}",
+                    configured, fallback.getClass().getSimpleName(), e);
+            return fallback;
+        }
+        return new StderrLogSink();
+    }
+
+    /**
+     * 解析失败时的退路: classpath 中存在 slf4j-api 时使用 {@link Slf4jLogSink}, 否则使用 {@link StderrLogSink},
+     * 以便解析失败本身能被记录
+     */
+    private static LogSink fallback() {
+        if (present(SLF4J_FACTORY)) {
+            try {
+                return instantiate(SLF4J_SINK);
+            } catch (Exception | LinkageError ignored) {
+                // slf4j 不可用时输出到标准错误流
+            }
+        }
+        return new StderrLogSink();
+    }
+
+    private static LogSink byName(String name) throws ReflectiveOperationException {
+        switch (name) {
+            case "slf4j":
+                return instantiate(SLF4J_SINK);
+            case "stderr":
+                return new StderrLogSink();
+            case "noop":
+                return new NoopLogSink();
+            case "ring":
+                return new RingBufferFileLogSink();
+            default:
+                return instantiate(name);
+        }
+    }
+
+    private static LogSink instantiate(String className) throws ReflectiveOperationException {
+        Class<?> type = Class.forName(className, true, LogSinks.class.getClassLoader());
+        return (LogSink) type.getDeclaredConstructor().newInstance();
+    }
+
+    private static boolean present(String className) {
+        try {
+            Class.forName(className, false, LogSinks.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
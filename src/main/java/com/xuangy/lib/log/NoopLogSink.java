@@ -0,0 +1,20 @@
+package com.xuangy.lib.log;
+
+/**
+ * @description: 丢弃所有日志
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 09:30
+ */
+public final class NoopLogSink implements LogSink {
+
+    @Override
+    public boolean isEnabled(LogLevel level, String source) {
+        return false;
+    }
+
+    @Override
+    public void log(LogLevel level, String source, String format, Object... args) {
+        // 不输出
+    }
+}
@@ -0,0 +1,229 @@
+package com.xuangy.lib.log;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 直接写入内存映射文件的二进制环形日志, 不依赖任何日志框架
+ *               文件由固定大小的槽位组成, 每条日志占一个槽位, 写满后从头覆盖最旧的日志;
+ *               超出槽位的部分被截断, 槽位头记录截断标记, 读出时以 "...[truncated N bytes]" 结尾.
+ *               写入只需一次原子自增分配槽位, 不加锁; 数据写入页缓存, 由操作系统刷盘, 进程崩溃后日志仍然保留.
+ *               可通过 {@link #read(Path)} 按写入顺序读出.
+ *               无参构造时读取系统属性:
+ *               xuangy.log.ring.file(默认 ${java.io.tmpdir}/xuangy-log-${pid}.ring, 每个 JVM 一个文件, 避免多个进程写同一个文件),
+ *               xuangy.log.ring.slots(默认 16384), xuangy.log.ring.slotSize(默认 1024),
+ *               xuangy.log.ring.level(默认 INFO).
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 09:30
+ */
+public final class RingBufferFileLogSink implements LogSink {
+
+    private static final int MAGIC = 0x58524C47;
+
+    private static final int VERSION = 2;
+
+    private static final int FILE_HEADER = 16;
+
+    /**
+     * 槽位头: 8 字节序号 + 8 字节时间戳 + 1 字节级别 + 1 字节标记 + 2 字节内容长度
+     */
+    private static final int SLOT_HEADER = 20;
+
+    private static final int MIN_SLOT_SIZE = 64;
+
+    /**
+     * 槽位标记: 内容被截断, 内容长度之后的 4 字节为截断的字节数
+     */
+    private static final byte FLAG_TRUNCATED = 1;
+
+    private static final int TRUNCATED_BYTES = 4;
+
+    private final MappedByteBuffer buffer;
+
+    private final int slots;
+
+    private final int slotSize;
+
+    private final LogLevel level;
+
+    private final AtomicLong sequence;
+
+    public RingBufferFileLogSink() {
+        this(Paths.get(System.getProperty("xuangy.log.ring.file",
+                        Paths.get(System.getProperty("java.io.tmpdir"), "xuangy-log-" + pid() + ".ring").toString())),
+                Integer.getInteger("xuangy.log.ring.slots", 16384),
+                Integer.getInteger("xuangy.log.ring.slotSize", 1024),
+                LogLevel.valueOf(System.getProperty("xuangy.log.ring.level", LogLevel.INFO.name())));
+    }
+
+    /**
+     * @param file     环形日志文件, 槽位参数不一致时会被重建
+     * @param slots    槽位数量
+     * @param slotSize 每个槽位的字节数, 不超过 65535
+     * @param level    输出的最低级别
+     */
+    public RingBufferFileLogSink(@NonNull Path file, int slots, int slotSize, @NonNull LogLevel level) {
+        if (slots <= 0 || slotSize < MIN_SLOT_SIZE || slotSize > 0xFFFF) {
+            throw new IllegalArgumentException("slots must be positive and slotSize must be in [64, 65535]");
+        }
+        this.slots = slots;
+        this.slotSize = slotSize;
+        this.level = level;
+        long length = FILE_HEADER + (long) slots * slotSize;
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("ring file too large: " + length);
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            boolean reuse = raf.length() == length;
+            raf.setLength(length);
+            this.buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, length);
+            if (!reuse || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION || buffer.getInt(8) != slots || buffer.getInt(12) != slotSize) {
+                for (int i = 0; i < slots; i++) {
+                    buffer.putLong(slotOffset(i), 0L);
+                }
+                buffer.putInt(0, MAGIC);
+                buffer.putInt(4, VERSION);
+                buffer.putInt(8, slots);
+                buffer.putInt(12, slotSize);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        long last = 0L;
+        for (int i = 0; i < slots; i++) {
+            last = Math.max(last, buffer.getLong(slotOffset(i)));
+        }
+        this.sequence = new AtomicLong(last);
+    }
+
+    @Override
+    public boolean isEnabled(LogLevel level, String source) {
+        return level.ordinal() <= this.level.ordinal();
+    }
+
+    @Override
+    public void log(LogLevel level, String source, String format, Object... args) {
+        if (!isEnabled(level, source)) {
+            return;
+        }
+        byte[] payload = (source + " - " + LogFormat.format(format, args)).getBytes(StandardCharsets.UTF_8);
+        int capacity = slotSize - SLOT_HEADER;
+        boolean truncated = payload.length > capacity;
+        int length = truncated ? utf8Boundary(payload, capacity - TRUNCATED_BYTES) : payload.length;
+        long seq = sequence.incrementAndGet();
+        int offset = slotOffset((int) ((seq - 1) % slots));
+        // 先清空序号, 写完内容后再写入序号, 读取时以序号判断槽位是否完整
+        buffer.putLong(offset, 0L);
+        buffer.putLong(offset + 8, System.currentTimeMillis());
+        buffer.put(offset + 16, (byte) level.ordinal());
+        buffer.put(offset + 17, truncated ? FLAG_TRUNCATED : 0);
+        buffer.putShort(offset + 18, (short) length);
+        ByteBuffer target = buffer.duplicate();
+        target.position(offset + SLOT_HEADER);
+        target.put(payload, 0, length);
+        if (truncated) {
+            target.putInt(payload.length - length);
+        }
+        buffer.putLong(offset, seq);
+    }
+
+    /**
+     * 按写入顺序读出环形日志文件中的全部日志
+     *
+     * @param file 环形日志文件
+     * @return 每条日志一个字符串, 格式为 "时间 级别 来源 - 内容"
+     * @throws IOException 文件读取失败或不是环形日志文件
+     */
+    public static List<String> read(@NonNull Path file) throws IOException {
+        ByteBuffer data;
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "r")) {
+            data = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, raf.length());
+        }
+        if (data.capacity() < FILE_HEADER || data.getInt(0) != MAGIC) {
+            throw new IOException("not a ring log file: " + file);
+        }
+        int slots = data.getInt(8);
+        int slotSize = data.getInt(12);
+        LogLevel[] levels = LogLevel.values();
+        TreeMap<Long, String> ordered = new TreeMap<>();
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS");
+        for (int i = 0; i < slots; i++) {
+            int offset = FILE_HEADER + i * slotSize;
+            long seq = data.getLong(offset);
+            if (seq <= 0L) {
+                continue;
+            }
+            boolean truncated = data.get(offset + 17) == FLAG_TRUNCATED;
+            int capacity = slotSize - SLOT_HEADER - (truncated ? TRUNCATED_BYTES : 0);
+            int length = Math.min(data.getShort(offset + 18) & 0xFFFF, capacity);
+            byte[] payload = new byte[length];
+            ByteBuffer source = data.duplicate();
+            source.position(offset + SLOT_HEADER);
+            source.get(payload);
+            int levelIndex = data.get(offset + 16);
+            String levelName = levelIndex >= 0 && levelIndex < levels.length ? levels[levelIndex].name() : "?";
+            String line = dateFormat.format(new Date(data.getLong(offset + 8))) + " " + levelName + " "
+                    + new String(payload, StandardCharsets.UTF_8);
+            if (truncated) {
+                line += "...[truncated " + source.getInt() + " bytes]";
+            }
+            ordered.put(seq, line);
+        }
+        return new ArrayList<>(ordered.values());
+    }
+
+    /**
+     * 截断位置前移到字符边界, 跳过 UTF-8 的后续字节(10xxxxxx), 避免截断多字节字符
+     *
+     * @return 不超过 limit 的截断长度
+     */
+    static int utf8Boundary(byte[] payload, int limit) {
+        int length = limit;
+        while (length > 0 && (payload[length] & 0xC0) == 0x80) {
+            length--;
+        }
+        return length;
+    }
+
+    /**
+     * JDK 8 没有 ProcessHandle: Linux 上读取 /proc/self 链接, 避免加载 JMX;
+     * 其他系统从 RuntimeMXBean 的名称(pid@hostname)中取进程 id
+     */
+    private static String pid() {
+        try {
+            return Paths.get("/proc/self").toRealPath().getFileName().toString();
+        } catch (IOException | RuntimeException e) {
+            // 非 Linux 系统
+        }
+        String name;
+        try {
+            name = ManagementFactory.getRuntimeMXBean().getName();
+        } catch (LinkageError e) {
+            throw new IllegalStateException("cannot determine pid, set xuangy.log.ring.file explicitly", e);
+        }
+        int at = name.indexOf('@');
+        return at > 0 ? name.substring(0, at) : Integer.toHexString(name.hashCode());
+    }
+
+    private int slotOffset(int slot) {
+        return FILE_HEADER + slot * slotSize;
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.xuangy.lib.log;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * @description: 输出到 SLF4J, 具体的日志实现(logback / log4j2 等)由应用自行选择
+ *               仅在 classpath 中存在 slf4j-api 时才会被加载.
+ *               {@link Log} 创建时通过 {@link #bind(String)} 解析一次 Logger 并持有, 输出时不再按名称查找.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 09:30
+ */
+public final class Slf4jLogSink implements LogSink {
+
+    @Override
+    public boolean isEnabled(LogLevel level, String source) {
+        return isEnabled(LoggerFactory.getLogger(source), level);
+    }
+
+    @Override
+    public void log(LogLevel level, String source, String format, Object... args) {
+        log(LoggerFactory.getLogger(source), level, format, args);
+    }
+
+    @Override
+    public LogSink bind(String source) {
+        return new Bound(LoggerFactory.getLogger(source));
+    }
+
+    private static boolean isEnabled(Logger logger, LogLevel level) {
+        switch (level) {
+            case ERROR:
+                return logger.isErrorEnabled();
+            case WARN:
+                return logger.isWarnEnabled();
+            case INFO:
+                return logger.isInfoEnabled();
+            default:
+                return logger.isDebugEnabled();
+        }
+    }
+
+    private static void log(Logger logger, LogLevel level, String format, Object... args) {
+        switch (level) {
+            case ERROR:
+                logger.error(format, args);
+                break;
+            case WARN:
+                logger.warn(format, args);
+                break;
+            case INFO:
+                logger.info(format, args);
+                break;
+            default:
+                logger.debug(format, args);
+        }
+    }
+
+    /**
+     * 绑定到单个来源的 sink, 忽略传入的 source
+     */
+    private static final class Bound implements LogSink {
+
+        private final Logger logger;
+
+        private Bound(Logger logger) {
+            this.logger = logger;
+        }
+
+        @Override
+        public boolean isEnabled(LogLevel level, String source) {
+            return Slf4jLogSink.isEnabled(logger, level);
+        }
+
+        @Override
+        public void log(LogLevel level, String source, String format, Object... args) {
+            Slf4jLogSink.log(logger, level, format, args);
+        }
+    }
+}
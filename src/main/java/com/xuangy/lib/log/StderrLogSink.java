@@ -0,0 +1,29 @@
+package com.xuangy.lib.log;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+/**
+ * @description: 输出到标准错误流, 只输出 WARN 与 ERROR
+ *               未配置 LogSink 且 classpath 中没有 slf4j-api 时的默认实现, 保证被吞掉的异常至少留下一条记录.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/20 10:00
+ */
+public final class StderrLogSink implements LogSink {
+
+    @Override
+    public boolean isEnabled(LogLevel level, String source) {
+        return level.ordinal() <= LogLevel.WARN.ordinal();
+    }
+
+    @Override
+    public void log(LogLevel level, String source, String format, Object... args) {
+        if (!isEnabled(level, source)) {
+            return;
+        }
+        String time = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss.SSS").format(new Date());
+        System.err.println(time + " " + level.name() + " [" + Thread.currentThread().getName() + "] " + source + " - "
+                + LogFormat.format(format, args));
+    }
+}
@@ -0,0 +1,81 @@
+package com.xuangy.lib.ratelimit;
+
+import java.io.InterruptedIOException;
+
+/**
+ * @description: 单个流 / 通道从 {@link ByteRateLimiter} 预取的字节额度
+ *               额度不足时一次预取至少 chunkSize 字节, 之后在本地扣减, 避免每次读写都竞争共享的限流器;
+ *               关闭时归还未使用的额度.
+ *               预约在锁内完成(一次 CAS), 等待在锁外进行, 等待期间 give / release 不会被阻塞.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 10:40
+ */
+final class ByteCredit {
+
+    private final ByteRateLimiter limiter;
+
+    private final int chunkSize;
+
+    private long credit;
+
+    ByteCredit(ByteRateLimiter limiter, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive: " + chunkSize);
+        }
+        this.limiter = limiter;
+        this.chunkSize = chunkSize;
+    }
+
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * 扣减字节额度, 本地额度不足时从限流器预取并阻塞等待
+     *
+     * @param bytes 字节数
+     * @throws InterruptedIOException 等待期间线程被中断, 此时扣减的额度放回本地
+     */
+    void take(long bytes) throws InterruptedIOException {
+        if (bytes <= 0) {
+            return;
+        }
+        long wait = 0L;
+        synchronized (this) {
+            if (credit < bytes) {
+                long grant = Math.max(chunkSize, bytes - credit);
+                wait = limiter.reserve(grant);
+                credit += grant;
+            }
+            credit -= bytes;
+        }
+        try {
+            limiter.await(wait);
+        } catch (InterruptedException e) {
+            give(bytes);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for " + bytes + " bytes");
+        }
+    }
+
+    /**
+     * 已扣减但实际未使用的字节数, 放回本地额度
+     *
+     * @param bytes 字节数
+     */
+    synchronized void give(long bytes) {
+        if (bytes > 0) {
+            credit += bytes;
+        }
+    }
+
+    /**
+     * 归还未使用的额度
+     */
+    synchronized void release() {
+        limiter.refund(credit);
+        credit = 0L;
+    }
+
+}
@@ -0,0 +1,208 @@
+package com.xuangy.lib.ratelimit;
+
+import lombok.NonNull;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 带宽限流器, 许可单位为字节, 用于限制批量导出 / 数据同步等场景的每秒字节数
+ *               同一个实例可以被任意多个流 / 通道共享, 共同受 bytesPerSecond 限制.
+ *               状态只有一个 {@link GcraBucket}, 获取与归还都是一次 CAS; 允许的突发量为 burstBytes.
+ *               流 / 通道不会按字节获取许可, 而是每次从限流器预取 chunkSize 字节的额度, 在本地逐步消耗.
+ * <pre>
+ * ByteRateLimiter limiter = new ByteRateLimiter(10L * 1024 * 1024);
+ * try (OutputStream out = limiter.throttle(Files.newOutputStream(path))) {
+ *     ...
+ * }
+ * </pre>
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 10:40
+ */
+public class ByteRateLimiter implements RateLimiter {
+
+    /**
+     * 流 / 通道每次预取的默认额度
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 16 * 1024;
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final TimeSource timeSource;
+
+    private final long originNanos;
+
+    private final long bytesPerSecond;
+
+    private final double nanosPerByte;
+
+    private final long toleranceNanos;
+
+    private final GcraBucket bucket = new GcraBucket();
+
+    private final LongAdder acquiredBytes = new LongAdder();
+
+    private final LongAdder throttledNanos = new LongAdder();
+
+    /**
+     * 允许的突发量为 100 毫秒的字节数
+     *
+     * @param bytesPerSecond 每秒字节数
+     */
+    public ByteRateLimiter(long bytesPerSecond) {
+        this(bytesPerSecond, Math.max(1L, bytesPerSecond / 10));
+    }
+
+    /**
+     * @param bytesPerSecond 每秒字节数
+     * @param burstBytes     允许的突发字节数
+     */
+    public ByteRateLimiter(long bytesPerSecond, long burstBytes) {
+        this(bytesPerSecond, burstBytes, TimeSource.system());
+    }
+
+    /**
+     * @param bytesPerSecond 每秒字节数
+     * @param burstBytes     允许的突发字节数
+     * @param timeSource     时间源
+     */
+    public ByteRateLimiter(long bytesPerSecond, long burstBytes, @NonNull TimeSource timeSource) {
+        if (bytesPerSecond <= 0 || burstBytes <= 0) {
+            throw new IllegalArgumentException("bytesPerSecond and burstBytes must be positive");
+        }
+        this.bytesPerSecond = bytesPerSecond;
+        this.timeSource = timeSource;
+        this.originNanos = timeSource.nanoTime();
+        this.nanosPerByte = NANOS_PER_SECOND / bytesPerSecond;
+        this.toleranceNanos = costNanos(burstBytes);
+    }
+
+    /**
+     * 突发额度足够时获取成功, 不会阻塞
+     *
+     * @param permits 字节数
+     */
+    @Override
+    public boolean tryAcquire(int permits) {
+        checkBytes(permits);
+        if (bucket.tryTake(1L, now(), costNanos(permits), toleranceNanos)) {
+            acquiredBytes.add(permits);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 预约字节额度并阻塞等待, 超出突发量的部分按 bytesPerSecond 匀速发放
+     *
+     * @param bytes 字节数
+     * @return 等待的纳秒数
+     * @throws InterruptedException 等待期间线程被中断, 已预约的额度不会归还
+     */
+    public long acquire(long bytes) throws InterruptedException {
+        long wait = reserve(bytes);
+        await(wait);
+        return Math.max(0L, wait);
+    }
+
+    /**
+     * 预约字节额度, 不等待; 供 {@link ByteCredit} 在锁内预约、锁外等待
+     *
+     * @param bytes 字节数
+     * @return 需要等待的纳秒数, 小于等于 0 表示无需等待
+     */
+    long reserve(long bytes) {
+        checkBytes(bytes);
+        acquiredBytes.add(bytes);
+        return bucket.reserve(costNanos(bytes), now(), toleranceNanos);
+    }
+
+    /**
+     * 等待 {@link #reserve(long)} 返回的时长
+     *
+     * @param wait 等待的纳秒数
+     * @throws InterruptedException 等待期间线程被中断, 已预约的额度不会归还
+     */
+    void await(long wait) throws InterruptedException {
+        if (wait <= 0L) {
+            return;
+        }
+        long deadline = timeSource.nanoTime() + wait;
+        long remaining = wait;
+        while (remaining > 0L) {
+            timeSource.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            remaining = deadline - timeSource.nanoTime();
+        }
+        throttledNanos.add(wait);
+    }
+
+    /**
+     * 归还已获取但未使用的字节额度
+     *
+     * @param bytes 字节数
+     */
+    public void refund(long bytes) {
+        if (bytes <= 0) {
+            return;
+        }
+        acquiredBytes.add(-bytes);
+        bucket.refund(1L, costNanos(bytes));
+    }
+
+    public InputStream throttle(@NonNull InputStream in) {
+        return new ThrottledInputStream(in, this, DEFAULT_CHUNK_SIZE);
+    }
+
+    public OutputStream throttle(@NonNull OutputStream out) {
+        return new ThrottledOutputStream(out, this, DEFAULT_CHUNK_SIZE);
+    }
+
+    public ReadableByteChannel throttle(@NonNull ReadableByteChannel channel) {
+        return new ThrottledReadableByteChannel(channel, this, DEFAULT_CHUNK_SIZE);
+    }
+
+    public WritableByteChannel throttle(@NonNull WritableByteChannel channel) {
+        return new ThrottledWritableByteChannel(channel, this, DEFAULT_CHUNK_SIZE);
+    }
+
+    public long getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    /**
+     * @return 累计获取的字节额度, 不含已归还的部分
+     */
+    public long getAcquiredBytes() {
+        return acquiredBytes.sum();
+    }
+
+    /**
+     * @return 因限流累计等待的纳秒数, 多个线程的等待时间累加
+     */
+    public long getThrottledNanos() {
+        return throttledNanos.sum();
+    }
+
+    private long costNanos(long bytes) {
+        return Math.max(1L, (long) (bytes * nanosPerByte));
+    }
+
+    private long now() {
+        return timeSource.nanoTime() - originNanos;
+    }
+
+    private static void checkBytes(long bytes) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("bytes must be positive: " + bytes);
+        }
+    }
+
+}
@@ -0,0 +1,237 @@
+package com.xuangy.lib.ratelimit;
+
+import lombok.NonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 集群共享配额限流器
+ *               每个节点通过 {@link QuotaCoordinator} 批量租借全局令牌, 之后在本地无锁扣减.
+ *               本地令牌耗尽时才会再次租借, 租借量按本地需求速率(EWMA)自适应, 限定在 [minLease, maxLease] 之间.
+ *               租约有有效期, 到期后未用完的令牌在该节点下一次调用时归还协调者; 节点可能长时间没有请求时,
+ *               应定期调用 {@link #releaseExpired()}(例如每个 leaseTtl 一次), 避免空闲节点长期占用配额.
+ *               协调者全局配额耗尽时, 在 denyBackoff 时间内不再发起租借, 直接拒绝.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 15:10
+ */
+public class ClusterRateLimiter implements RateLimiter {
+
+    /**
+     * 需求速率 EWMA 的平滑系数
+     */
+    private static final double DEMAND_ALPHA = 0.3D;
+
+    private final String nodeId;
+
+    private final QuotaCoordinator coordinator;
+
+    private final long minLease;
+
+    private final long maxLease;
+
+    private final long leaseTtlNanos;
+
+    /**
+     * 一次租借期望覆盖的本地需求时长
+     */
+    private final long leaseCoverNanos;
+
+    private final long denyBackoffNanos;
+
+    private final TimeSource timeSource;
+
+    private final AtomicLong tokens = new AtomicLong();
+
+    private final LongAdder demand = new LongAdder();
+
+    private final LongAdder leaseCount = new LongAdder();
+
+    private final Object leaseLock = new Object();
+
+    private volatile long leaseExpireNanos;
+
+    private volatile long nextLeaseNanos;
+
+    private volatile long lastLeaseSize;
+
+    private double demandPerNano;
+
+    private long lastDemandSampleNanos;
+
+    /**
+     * 租约有效期 1 秒, 每次租借覆盖 100ms 的本地需求, 配额耗尽后 10ms 内不再租借
+     *
+     * @param nodeId      节点标识
+     * @param coordinator 配额协调者
+     * @param minLease    单次最少租借令牌数
+     * @param maxLease    单次最多租借令牌数
+     */
+    public ClusterRateLimiter(String nodeId, QuotaCoordinator coordinator, long minLease, long maxLease) {
+        this(nodeId, coordinator, minLease, maxLease, 1000, 100, 10, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param nodeId      节点标识
+     * @param coordinator 配额协调者
+     * @param minLease    单次最少租借令牌数
+     * @param maxLease    单次最多租借令牌数
+     * @param leaseTtl    租约有效期
+     * @param leaseCover  单次租借期望覆盖的本地需求时长
+     * @param denyBackoff 协调者拒绝后暂停租借的时长
+     * @param unit        时间单位
+     */
+    public ClusterRateLimiter(String nodeId, QuotaCoordinator coordinator, long minLease, long maxLease,
+                              long leaseTtl, long leaseCover, long denyBackoff, TimeUnit unit) {
+        this(nodeId, coordinator, minLease, maxLease, leaseTtl, leaseCover, denyBackoff, unit, TimeSource.system());
+    }
+
+    /**
+     * @param nodeId      节点标识
+     * @param coordinator 配额协调者
+     * @param minLease    单次最少租借令牌数
+     * @param maxLease    单次最多租借令牌数
+     * @param leaseTtl    租约有效期
+     * @param leaseCover  单次租借期望覆盖的本地需求时长
+     * @param denyBackoff 协调者拒绝后暂停租借的时长
+     * @param unit        时间单位
+     * @param timeSource  时间源
+     */
+    public ClusterRateLimiter(@NonNull String nodeId, @NonNull QuotaCoordinator coordinator, long minLease, long maxLease,
+                              long leaseTtl, long leaseCover, long denyBackoff, @NonNull TimeUnit unit,
+                              @NonNull TimeSource timeSource) {
+        if (minLease <= 0 || maxLease < minLease) {
+            throw new IllegalArgumentException("require 0 < minLease <= maxLease");
+        }
+        this.nodeId = nodeId;
+        this.coordinator = coordinator;
+        this.minLease = minLease;
+        this.maxLease = maxLease;
+        this.leaseTtlNanos = unit.toNanos(leaseTtl);
+        this.leaseCoverNanos = unit.toNanos(leaseCover);
+        this.denyBackoffNanos = unit.toNanos(denyBackoff);
+        this.timeSource = timeSource;
+        long now = timeSource.nanoTime();
+        this.leaseExpireNanos = now;
+        this.nextLeaseNanos = now;
+        this.lastDemandSampleNanos = now;
+        this.lastLeaseSize = minLease;
+    }
+
+    @Override
+    public boolean tryAcquire(int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        demand.add(permits);
+        long now = timeSource.nanoTime();
+        if (now - leaseExpireNanos < 0 && tryTake(permits)) {
+            return true;
+        }
+        return acquireSlow(permits);
+    }
+
+    /**
+     * @return 本地剩余令牌数
+     */
+    public long availablePermits() {
+        return tokens.get();
+    }
+
+    /**
+     * @return 累计向协调者租借的次数
+     */
+    public long leaseCount() {
+        return leaseCount.sum();
+    }
+
+    /**
+     * @return 最近一次请求租借的令牌数
+     */
+    public long lastLeaseSize() {
+        return lastLeaseSize;
+    }
+
+    /**
+     * 租约已到期时将未用完的令牌归还协调者, 供空闲节点定期调用
+     *
+     * @return 归还的令牌数, 租约未到期或没有剩余令牌时返回 0
+     */
+    public long releaseExpired() {
+        if (timeSource.nanoTime() - leaseExpireNanos < 0 || tokens.get() == 0L) {
+            return 0L;
+        }
+        synchronized (leaseLock) {
+            return timeSource.nanoTime() - leaseExpireNanos >= 0 ? releaseUnused() : 0L;
+        }
+    }
+
+    private boolean tryTake(int permits) {
+        long current;
+        while ((current = tokens.get()) >= permits) {
+            if (tokens.compareAndSet(current, current - permits)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean acquireSlow(int permits) {
+        // 协调者拒绝后的退避期内直接失败, 不争抢 leaseLock
+        if (timeSource.nanoTime() - nextLeaseNanos < 0) {
+            return false;
+        }
+        synchronized (leaseLock) {
+            // 等待锁期间时间可能已经推进, 使用加锁前读取的时间会以过期的时刻计算租约到期与退避
+            long now = timeSource.nanoTime();
+            if (now - leaseExpireNanos >= 0) {
+                releaseUnused();
+            } else if (tryTake(permits)) {
+                // 等待锁期间其他线程已完成租借
+                return true;
+            }
+            if (now - nextLeaseNanos < 0) {
+                return false;
+            }
+            long size = Math.max(permits, leaseSize(now));
+            lastLeaseSize = size;
+            long granted = coordinator.lease(nodeId, size);
+            leaseCount.increment();
+            if (granted <= 0) {
+                nextLeaseNanos = now + denyBackoffNanos;
+                return false;
+            }
+            tokens.addAndGet(granted);
+            leaseExpireNanos = now + leaseTtlNanos;
+            return tryTake(permits);
+        }
+    }
+
+    /**
+     * 归还本地剩余令牌, 调用方需持有 leaseLock
+     */
+    private long releaseUnused() {
+        long unused = tokens.getAndSet(0L);
+        if (unused > 0) {
+            coordinator.release(nodeId, unused);
+        }
+        return unused;
+    }
+
+    /**
+     * 根据本地需求速率计算本次租借的令牌数, 调用方需持有 leaseLock
+     */
+    private long leaseSize(long now) {
+        long elapsed = now - lastDemandSampleNanos;
+        if (elapsed > 0) {
+            double rate = (double) demand.sumThenReset() / elapsed;
+            demandPerNano = demandPerNano == 0D ? rate : DEMAND_ALPHA * rate + (1 - DEMAND_ALPHA) * demandPerNano;
+            lastDemandSampleNanos = now;
+        }
+        long size = (long) Math.ceil(demandPerNano * leaseCoverNanos);
+        return Math.max(minLease, Math.min(maxLease, size));
+    }
+
+}
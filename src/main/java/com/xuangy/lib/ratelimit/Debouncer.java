@@ -0,0 +1,300 @@
+package com.xuangy.lib.ratelimit;
+
+import com.xuangy.lib.exception.handler.ExceptionHandler;
+import com.xuangy.lib.exception.handler.common.RunnableWithThrow;
+import com.xuangy.lib.log.Log;
+import com.xuangy.lib.log.LogSinks;
+import com.xuangy.lib.utils.TimerWheel;
+import lombok.NonNull;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 按 key 防抖 / 节流执行 RunnableWithThrow, 一次突发的多次触发合并为一次执行
+ *               TRAILING: 最后一次触发后静默 wait 才执行, 执行的是最后一次触发的任务;
+ *                         设置 maxWait 时, 持续触发也最多等待 maxWait 就执行一次(节流).
+ *               LEADING: 静默期后的第一次触发立即执行, 之后距上次触发不足 wait 的触发被丢弃;
+ *                        设置 maxWait 时, 持续触发每隔 maxWait 放行一次.
+ *               所有 key 共享一个时间轮, 每个 key 同一时刻最多挂一个定时任务: 再次触发只更新时间戳,
+ *               定时任务到期时检查是否真正到期, 未到期则按剩余时长重新挂入, 不做取消操作.
+ *               任务在线程池中执行, 异常通过 {@link ExceptionHandler#ignoreExceptionWithErrorMsg(RunnableWithThrow, String)} 打印日志.
+ * <pre>
+ * Debouncer&lt;String&gt; debouncer = Debouncer.trailing(200, 1000, TimeUnit.MILLISECONDS);
+ * debouncer.trigger(cacheName, () -&gt; cache.reload());
+ * </pre>
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 11:30
+ */
+public class Debouncer<K> {
+
+    private static final Log log = LogSinks.getLog(Debouncer.class);
+
+    private final Mode mode;
+
+    private final long waitNanos;
+
+    private final long maxWaitNanos;
+
+    private final TimerWheel timer;
+
+    private final Executor executor;
+
+    private final ConcurrentMap<K, State> states = new ConcurrentHashMap<>();
+
+    private final LongAdder triggered = new LongAdder();
+
+    private final LongAdder executed = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * 使用共享的默认时间轮, 任务在公共 ForkJoinPool 中执行
+     *
+     * @param mode    触发边沿
+     * @param wait    静默时长
+     * @param maxWait 持续触发时的最长间隔, 小于等于 0 表示不限制
+     * @param unit    wait 与 maxWait 的时间单位
+     */
+    public Debouncer(Mode mode, long wait, long maxWait, TimeUnit unit) {
+        this(mode, wait, maxWait, unit, DefaultTimer.INSTANCE, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param mode     触发边沿
+     * @param wait     静默时长
+     * @param maxWait  持续触发时的最长间隔, 小于等于 0 表示不限制
+     * @param unit     wait 与 maxWait 的时间单位
+     * @param timer    调度使用的时间轮
+     * @param executor 执行任务的线程池
+     */
+    public Debouncer(@NonNull Mode mode, long wait, long maxWait, @NonNull TimeUnit unit,
+                     @NonNull TimerWheel timer, @NonNull Executor executor) {
+        if (wait <= 0) {
+            throw new IllegalArgumentException("wait must be positive: " + wait);
+        }
+        if (maxWait > 0 && maxWait < wait) {
+            throw new IllegalArgumentException("maxWait must not be less than wait");
+        }
+        this.mode = mode;
+        this.waitNanos = unit.toNanos(wait);
+        this.maxWaitNanos = maxWait > 0 ? unit.toNanos(maxWait) : 0L;
+        this.timer = timer;
+        this.executor = executor;
+    }
+
+    public static <K> Debouncer<K> trailing(long wait, TimeUnit unit) {
+        return new Debouncer<>(Mode.TRAILING, wait, 0L, unit);
+    }
+
+    public static <K> Debouncer<K> trailing(long wait, long maxWait, TimeUnit unit) {
+        return new Debouncer<>(Mode.TRAILING, wait, maxWait, unit);
+    }
+
+    public static <K> Debouncer<K> leading(long wait, TimeUnit unit) {
+        return new Debouncer<>(Mode.LEADING, wait, 0L, unit);
+    }
+
+    public static <K> Debouncer<K> leading(long wait, long maxWait, TimeUnit unit) {
+        return new Debouncer<>(Mode.LEADING, wait, maxWait, unit);
+    }
+
+    /**
+     * 触发一次, 不会阻塞
+     *
+     * @param key  合并的 key, 同一 key 的触发合并为一次执行
+     * @param task 待执行的任务, TRAILING 模式执行最后一次触发的任务, LEADING 模式执行第一次触发的任务
+     */
+    public void trigger(@NonNull K key, @NonNull RunnableWithThrow<? extends Exception> task) {
+        triggered.increment();
+        long now = System.nanoTime();
+        while (true) {
+            State state = states.get(key);
+            if (state == null) {
+                State created = new State(task, now);
+                if (states.putIfAbsent(key, created) == null) {
+                    start(key, created, now);
+                    return;
+                }
+                continue;
+            }
+            boolean runNow = false;
+            synchronized (state) {
+                if (state.removed) {
+                    continue;
+                }
+                state.lastNanos = now;
+                if (mode == Mode.TRAILING) {
+                    state.task = task;
+                } else if (maxWaitNanos > 0L && now - state.firstNanos >= maxWaitNanos) {
+                    state.firstNanos = now;
+                    runNow = true;
+                }
+            }
+            if (runNow) {
+                execute(key, task);
+            }
+            return;
+        }
+    }
+
+    /**
+     * 丢弃 key 尚未执行的触发
+     *
+     * @param key 合并的 key
+     * @return true: 存在尚未结束的触发
+     */
+    public boolean cancel(@NonNull K key) {
+        State state = states.remove(key);
+        if (state == null) {
+            return false;
+        }
+        synchronized (state) {
+            state.removed = true;
+        }
+        return true;
+    }
+
+    /**
+     * @return 处于合并窗口中的 key 数量
+     */
+    public int pendingKeys() {
+        return states.size();
+    }
+
+    /**
+     * @return 累计触发次数
+     */
+    public long getTriggeredCount() {
+        return triggered.sum();
+    }
+
+    /**
+     * @return 累计交给线程池执行的次数, 不含被线程池拒绝的任务
+     */
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    /**
+     * @return 累计被线程池拒绝而丢弃的任务数
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    private void start(K key, State state, long now) {
+        RunnableWithThrow<? extends Exception> leading = null;
+        long delay;
+        synchronized (state) {
+            if (mode == Mode.LEADING) {
+                leading = state.task;
+                state.task = null;
+            }
+            delay = deadline(state) - now;
+        }
+        if (leading != null) {
+            execute(key, leading);
+        }
+        schedule(key, state, delay);
+    }
+
+    /**
+     * 定时任务到期, 再次触发使窗口后移时按剩余时长重新挂入时间轮
+     */
+    private void fire(K key, State state) {
+        RunnableWithThrow<? extends Exception> task;
+        long delay;
+        synchronized (state) {
+            if (state.removed) {
+                return;
+            }
+            delay = deadline(state) - System.nanoTime();
+            if (delay > 0L) {
+                task = null;
+            } else {
+                state.removed = true;
+                states.remove(key, state);
+                task = state.task;
+            }
+        }
+        if (delay > 0L) {
+            schedule(key, state, delay);
+        } else if (task != null) {
+            execute(key, task);
+        }
+    }
+
+    private long deadline(State state) {
+        long deadline = state.lastNanos + waitNanos;
+        if (mode == Mode.TRAILING && maxWaitNanos > 0L && deadline - (state.firstNanos + maxWaitNanos) > 0L) {
+            deadline = state.firstNanos + maxWaitNanos;
+        }
+        return deadline;
+    }
+
+    private void schedule(K key, State state, long delayNanos) {
+        timer.schedule(() -> fire(key, state), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void execute(K key, RunnableWithThrow<? extends Exception> task) {
+        try {
+            executor.execute(() -> ExceptionHandler.ignoreExceptionWithErrorMsg(task, "debounced task error, key: " + key));
+            executed.increment();
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            log.warn("debouncer executor rejected task, key: {}", key, e);
+        }
+    }
+
+    /**
+     * 触发边沿
+     */
+    public enum Mode {
+
+        /**
+         * 突发结束后执行
+         */
+        TRAILING,
+
+        /**
+         * 突发开始时执行
+         */
+        LEADING
+    }
+
+    private static final class State {
+
+        private RunnableWithThrow<? extends Exception> task;
+
+        /**
+         * 窗口开始时间, LEADING 模式下为最近一次执行时间
+         */
+        private long firstNanos;
+
+        private long lastNanos;
+
+        private boolean removed;
+
+        private State(RunnableWithThrow<? extends Exception> task, long now) {
+            this.task = task;
+            this.firstNanos = now;
+            this.lastNanos = now;
+        }
+    }
+
+    /**
+     * 未指定时间轮时共享的默认时间轮, 首次使用时创建
+     */
+    private static final class DefaultTimer {
+
+        private static final TimerWheel INSTANCE = new TimerWheel("debouncer-timer");
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.xuangy.lib.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * @description: 基于 GCRA(通用信元速率算法)的令牌桶, 整个状态只有一个 long(理论到达时间 tat)
+ *               获取与归还都是对 tat 的一次 CAS, 无锁且内存占用极小, 适合百万级 key 的场景.
+ *               时间由调用方传入, 为相对于某个起点的非负纳秒数.
+ *               已回满的桶可以被标记为退役({@link #retire(long)}), 退役后获取总是失败, 调用方应丢弃并重新创建桶.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 19:00
+ */
+final class GcraBucket {
+
+    private static final AtomicLongFieldUpdater<GcraBucket> TAT = AtomicLongFieldUpdater.newUpdater(GcraBucket.class, "tat");
+
+    /**
+     * 退役标记, 正常的 tat 不会取到该值
+     */
+    private static final long RETIRED = Long.MIN_VALUE;
+
+    private volatile long tat;
+
+    /**
+     * @param permits        许可数量
+     * @param now            当前时间
+     * @param intervalNanos  每个许可的发放间隔
+     * @param toleranceNanos 允许的突发量对应的时长, 即 burst * intervalNanos
+     * @return true: 获取成功, false: 许可不足或桶已退役
+     */
+    boolean tryTake(long permits, long now, long intervalNanos, long toleranceNanos) {
+        long cost = permits * intervalNanos;
+        while (true) {
+            long current = tat;
+            if (current == RETIRED) {
+                return false;
+            }
+            long next = Math.max(current, now) + cost;
+            if (next - now > toleranceNanos) {
+                return false;
+            }
+            if (TAT.compareAndSet(this, current, next)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 预约许可, 超出突发量时也会成功, 由调用方等待返回的时长
+     *
+     * @param cost           本次预约占用的时长, 即 permits * intervalNanos
+     * @param now            当前时间
+     * @param toleranceNanos 允许的突发量对应的时长
+     * @return 需要等待的纳秒数, 小于等于 0 表示无需等待
+     */
+    long reserve(long cost, long now, long toleranceNanos) {
+        while (true) {
+            long current = tat;
+            long next = Math.max(current, now) + cost;
+            if (TAT.compareAndSet(this, current, next)) {
+                return next - now - toleranceNanos;
+            }
+        }
+    }
+
+    /**
+     * 归还已获取的许可
+     */
+    void refund(long permits, long intervalNanos) {
+        long cost = permits * intervalNanos;
+        while (true) {
+            long current = tat;
+            if (current == RETIRED || TAT.compareAndSet(this, current, current - cost)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return true: 桶已回满, 等价于新建的桶
+     */
+    boolean isIdle(long now) {
+        long current = tat;
+        return current != RETIRED && current <= now;
+    }
+
+    /**
+     * 桶已回满时标记为退役, 与并发的获取通过同一个 CAS 排序:
+     * 获取先成功则 tat 大于 now, 退役失败; 退役先成功则之后的获取失败并由调用方重新创建桶
+     *
+     * @return true: 退役成功
+     */
+    boolean retire(long now) {
+        while (true) {
+            long current = tat;
+            if (current == RETIRED || current > now) {
+                return false;
+            }
+            if (TAT.compareAndSet(this, current, RETIRED)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return true: 桶已退役
+     */
+    boolean isRetired() {
+        return tat == RETIRED;
+    }
+}
@@ -0,0 +1,197 @@
+package com.xuangy.lib.ratelimit;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 分层配额限流器(全局 -> 租户 -> 用户)
+ *               一次调用依次从用户、租户、全局三层桶中获取许可, 先检查最具体的一层,
+ *               超限的用户在用户层即被拒绝, 不会反复占用再归还全局 / 租户桶; 任意一层被拒绝时,
+ *               已从下层获取的许可通过 CAS 归还, 整个过程不使用锁.
+ *               每个桶只有一个 long 状态({@link GcraBucket}), 用户层可容纳百万级 key;
+ *               长时间空闲(已回满)的租户 / 用户桶可以通过 {@link #evictIdle()} 清理, 清理不影响限流结果:
+ *               清理时先将桶标记为退役再按 key 和值条件删除, 并发获取到已退役桶的调用会重新创建桶后重试.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 19:00
+ */
+public class HierarchicalRateLimiter {
+
+    private final TimeSource timeSource;
+
+    private final long originNanos;
+
+    private final Quota globalQuota;
+
+    private final Quota tenantQuota;
+
+    private final Quota userQuota;
+
+    private final GcraBucket global = new GcraBucket();
+
+    private final ConcurrentMap<String, TenantNode> tenants = new ConcurrentHashMap<>();
+
+    /**
+     * @param globalQuota 全局配额
+     * @param tenantQuota 每个租户的配额
+     * @param userQuota   每个用户的配额
+     */
+    public HierarchicalRateLimiter(Quota globalQuota, Quota tenantQuota, Quota userQuota) {
+        this(globalQuota, tenantQuota, userQuota, TimeSource.system());
+    }
+
+    /**
+     * @param globalQuota 全局配额
+     * @param tenantQuota 每个租户的配额
+     * @param userQuota   每个用户的配额
+     * @param timeSource  时间源
+     */
+    public HierarchicalRateLimiter(@NonNull Quota globalQuota, @NonNull Quota tenantQuota, @NonNull Quota userQuota,
+                                   @NonNull TimeSource timeSource) {
+        this.timeSource = timeSource;
+        this.originNanos = timeSource.nanoTime();
+        this.globalQuota = globalQuota;
+        this.tenantQuota = tenantQuota;
+        this.userQuota = userQuota;
+    }
+
+    /**
+     * 从用户、租户、全局三层同时获取许可, 任意一层不足时全部不获取
+     *
+     * @param tenant  租户
+     * @param user    用户, 同一租户下唯一
+     * @param permits 许可数量
+     * @return true: 三层均获取成功, false: 被某一层限流
+     */
+    public boolean tryAcquire(@NonNull String tenant, @NonNull String user, int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        long now = timeSource.nanoTime() - originNanos;
+        while (true) {
+            TenantNode tenantNode = tenants.computeIfAbsent(tenant, k -> new TenantNode());
+            GcraBucket userBucket = tenantNode.users.computeIfAbsent(user, k -> new GcraBucket());
+            if (!userQuota.tryTake(userBucket, permits, now)) {
+                if (userBucket.isRetired()) {
+                    tenantNode.users.remove(user, userBucket);
+                    continue;
+                }
+                return false;
+            }
+            if (!tenantQuota.tryTake(tenantNode.bucket, permits, now)) {
+                userQuota.refund(userBucket, permits);
+                if (tenantNode.bucket.isRetired()) {
+                    tenants.remove(tenant, tenantNode);
+                    continue;
+                }
+                return false;
+            }
+            if (!globalQuota.tryTake(global, permits, now)) {
+                tenantQuota.refund(tenantNode.bucket, permits);
+                userQuota.refund(userBucket, permits);
+                return false;
+            }
+            return true;
+        }
+    }
+
+    public boolean tryAcquire(String tenant, String user) {
+        return tryAcquire(tenant, user, 1);
+    }
+
+    /**
+     * 清理已回满的租户 / 用户桶
+     *
+     * @return 清理的桶数量
+     */
+    public int evictIdle() {
+        long now = timeSource.nanoTime() - originNanos;
+        int evicted = 0;
+        for (Map.Entry<String, TenantNode> tenantEntry : tenants.entrySet()) {
+            TenantNode tenantNode = tenantEntry.getValue();
+            for (Map.Entry<String, GcraBucket> userEntry : tenantNode.users.entrySet()) {
+                if (userEntry.getValue().retire(now) && tenantNode.users.remove(userEntry.getKey(), userEntry.getValue())) {
+                    evicted++;
+                }
+            }
+            if (tenantNode.users.isEmpty() && tenantNode.bucket.retire(now)
+                    && tenants.remove(tenantEntry.getKey(), tenantNode)) {
+                evicted++;
+            }
+        }
+        return evicted;
+    }
+
+    /**
+     * @return 当前的租户数量
+     */
+    public int tenantCount() {
+        return tenants.size();
+    }
+
+    /**
+     * @return 当前的用户桶数量
+     */
+    public long userCount() {
+        long count = 0;
+        for (TenantNode tenantNode : tenants.values()) {
+            count += tenantNode.users.size();
+        }
+        return count;
+    }
+
+    /**
+     * 单层配额: 稳定速率 + 允许的突发量
+     */
+    @Getter
+    public static final class Quota {
+
+        private final double permitsPerSecond;
+
+        private final long burst;
+
+        private final long intervalNanos;
+
+        private final long toleranceNanos;
+
+        private Quota(double permitsPerSecond, long burst) {
+            if (!(permitsPerSecond > 0D) || burst <= 0) {
+                throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+            }
+            this.permitsPerSecond = permitsPerSecond;
+            this.burst = burst;
+            this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+            this.toleranceNanos = burst * intervalNanos;
+        }
+
+        /**
+         * @param permitsPerSecond 每秒许可数
+         * @param burst            允许的突发量
+         * @return 配额
+         */
+        public static Quota of(double permitsPerSecond, long burst) {
+            return new Quota(permitsPerSecond, burst);
+        }
+
+        private boolean tryTake(GcraBucket bucket, int permits, long now) {
+            return bucket.tryTake(permits, now, intervalNanos, toleranceNanos);
+        }
+
+        private void refund(GcraBucket bucket, int permits) {
+            bucket.refund(permits, intervalNanos);
+        }
+    }
+
+    private static final class TenantNode {
+
+        private final GcraBucket bucket = new GcraBucket();
+
+        private final ConcurrentMap<String, GcraBucket> users = new ConcurrentHashMap<>();
+    }
+
+}
@@ -0,0 +1,420 @@
+package com.xuangy.lib.ratelimit;
+
+import com.xuangy.lib.log.Log;
+import com.xuangy.lib.log.LogSinks;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 基于 JVM 自身负载信号的准入控制
+ *               后台线程周期性地通过 MXBean 采样: GC 耗时占比、GC 后堆占用率、进程 CPU 使用率、已注册线程池的队列深度.
+ *               各信号超过阈值的程度折算为 0~1 的压力值, 取最大值换算为拒绝等级, 按优先级由低到高逐级拒绝,
+ *               {@link Priority#CRITICAL} 永远不会被拒绝.
+ *               拒绝等级上升立即生效, 下降需要连续若干次采样都低于当前等级, 避免信号在阈值附近抖动时反复放开和拒绝.
+ *               请求路径上的判断只是一次 volatile 读.
+ * <pre>
+ * LoadShedder shedder = new LoadShedder(1, TimeUnit.SECONDS)
+ *         .cpuThreshold(0.85)
+ *         .queueThreshold("biz-pool", bizPool, 1000)
+ *         .start();
+ * shedder.admit(LoadShedder.Priority.LOW);
+ * </pre>
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 20:10
+ */
+public class LoadShedder implements AutoCloseable {
+
+    private static final Log log = LogSinks.getLog(LoadShedder.class);
+
+    /**
+     * 请求优先级, 由高到低排列
+     */
+    public enum Priority {
+        CRITICAL, HIGH, NORMAL, LOW, BACKGROUND
+    }
+
+    private static final Priority[] PRIORITIES = Priority.values();
+
+    /**
+     * 最高拒绝等级, CRITICAL 不参与拒绝
+     */
+    private static final int MAX_SHED_LEVEL = PRIORITIES.length - 1;
+
+    private final long samplePeriodNanos;
+
+    private final Map<String, QueueSignal> queues = new ConcurrentHashMap<>();
+
+    private final LongAdder[] rejected = new LongAdder[PRIORITIES.length];
+
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+    /**
+     * 老年代内存池, 新生代(eden / survivor)在 GC 后本就接近满或为空, 不反映堆压力
+     */
+    private final List<MemoryPoolMXBean> tenuredPools = tenuredPools();
+
+    private final OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+
+    private double gcTimeThreshold = 0.1D;
+
+    private double heapThreshold = 0.85D;
+
+    private double cpuThreshold = 0.9D;
+
+    private int stepDownSamples = 3;
+
+    private ScheduledExecutorService sampler;
+
+    private long lastGcTimeMillis;
+
+    private long lastSampleNanos;
+
+    /**
+     * 连续低于当前拒绝等级的采样次数
+     */
+    private int samplesBelow;
+
+    /**
+     * 连续低于当前拒绝等级的采样中的最高等级, 下降时以此为目标等级
+     */
+    private int highestBelow;
+
+    /**
+     * 当前拒绝等级, 0 表示不拒绝, n 表示拒绝优先级最低的 n 档
+     */
+    private volatile int shedLevel;
+
+    private volatile Signals signals = new Signals(0D, 0D, 0D, 0D, 0D);
+
+    /**
+     * @param samplePeriod 采样周期
+     * @param unit         samplePeriod 的时间单位
+     */
+    public LoadShedder(long samplePeriod, @NonNull TimeUnit unit) {
+        if (samplePeriod <= 0) {
+            throw new IllegalArgumentException("samplePeriod must be positive: " + samplePeriod);
+        }
+        this.samplePeriodNanos = unit.toNanos(samplePeriod);
+        for (int i = 0; i < rejected.length; i++) {
+            rejected[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * @param threshold GC 耗时占墙钟时间的比例阈值, 默认 0.1
+     * @return 链式调用, 返回对象本身
+     */
+    public LoadShedder gcTimeThreshold(double threshold) {
+        this.gcTimeThreshold = checkRatio(threshold);
+        return this;
+    }
+
+    /**
+     * @param threshold GC 后堆占用率阈值, 默认 0.85
+     * @return 链式调用, 返回对象本身
+     */
+    public LoadShedder heapThreshold(double threshold) {
+        this.heapThreshold = checkRatio(threshold);
+        return this;
+    }
+
+    /**
+     * @param threshold 进程 CPU 使用率阈值, 默认 0.9
+     * @return 链式调用, 返回对象本身
+     */
+    public LoadShedder cpuThreshold(double threshold) {
+        this.cpuThreshold = checkRatio(threshold);
+        return this;
+    }
+
+    /**
+     * @param samples 拒绝等级下降前需要连续低于当前等级的采样次数, 默认 3, 为 1 时不做迟滞
+     * @return 链式调用, 返回对象本身
+     */
+    public synchronized LoadShedder stepDownSamples(int samples) {
+        if (samples <= 0) {
+            throw new IllegalArgumentException("samples must be positive: " + samples);
+        }
+        this.stepDownSamples = samples;
+        return this;
+    }
+
+    /**
+     * 注册需要监控队列深度的线程池, 队列深度超过 threshold 开始拒绝, 达到 2 倍 threshold 时压力值为 1
+     *
+     * @param name      名称
+     * @param pool      线程池
+     * @param threshold 队列深度阈值
+     * @return 链式调用, 返回对象本身
+     */
+    public LoadShedder queueThreshold(@NonNull String name, @NonNull ThreadPoolExecutor pool, int threshold) {
+        if (threshold <= 0) {
+            throw new IllegalArgumentException("threshold must be positive: " + threshold);
+        }
+        queues.put(name, new QueueSignal(pool, threshold));
+        return this;
+    }
+
+    /**
+     * 启动后台采样线程
+     *
+     * @return 链式调用, 返回对象本身
+     */
+    public synchronized LoadShedder start() {
+        if (sampler == null) {
+            lastGcTimeMillis = totalGcTimeMillis();
+            lastSampleNanos = System.nanoTime();
+            sampler = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "load-shedder-sampler");
+                thread.setDaemon(true);
+                return thread;
+            });
+            sampler.scheduleAtFixedRate(this::sampleQuietly, samplePeriodNanos, samplePeriodNanos, TimeUnit.NANOSECONDS);
+        }
+        return this;
+    }
+
+    /**
+     * 停止后台采样线程, 拒绝等级复位为 0
+     */
+    @Override
+    public synchronized void close() {
+        if (sampler != null) {
+            sampler.shutdownNow();
+            sampler = null;
+        }
+        shedLevel = 0;
+        samplesBelow = 0;
+    }
+
+    /**
+     * @param priority 请求优先级
+     * @return true: 准入, false: 被拒绝
+     */
+    public boolean tryAdmit(@NonNull Priority priority) {
+        if (priority.ordinal() < PRIORITIES.length - shedLevel) {
+            return true;
+        }
+        rejected[priority.ordinal()].increment();
+        return false;
+    }
+
+    /**
+     * @param priority 请求优先级
+     * @throws LoadSheddingException 被拒绝时抛出
+     */
+    public void admit(Priority priority) throws LoadSheddingException {
+        if (!tryAdmit(priority)) {
+            throw new LoadSheddingException(priority, shedLevel);
+        }
+    }
+
+    /**
+     * @return 当前拒绝等级, 0 表示不拒绝
+     */
+    public int shedLevel() {
+        return shedLevel;
+    }
+
+    /**
+     * @return 最近一次采样的信号
+     */
+    public Signals signals() {
+        return signals;
+    }
+
+    /**
+     * @param priority 请求优先级
+     * @return 该优先级累计被拒绝的次数
+     */
+    public long rejectedCount(@NonNull Priority priority) {
+        return rejected[priority.ordinal()].sum();
+    }
+
+    /**
+     * 立即采样一次并更新拒绝等级, 通常由后台线程调用
+     */
+    public synchronized void sample() {
+        long now = System.nanoTime();
+        long gcTime = totalGcTimeMillis();
+        double elapsedMillis = (now - lastSampleNanos) / 1_000_000D;
+        double gcRatio = elapsedMillis <= 0D ? 0D : Math.min(1D, (gcTime - lastGcTimeMillis) / elapsedMillis);
+        lastGcTimeMillis = gcTime;
+        lastSampleNanos = now;
+
+        double heap = heapAfterGcRatio();
+        double cpu = processCpuLoad();
+        double queuePressure = 0D;
+        for (QueueSignal queue : queues.values()) {
+            queuePressure = Math.max(queuePressure, queue.pressure());
+        }
+        double pressure = Math.max(Math.max(ratioPressure(gcRatio, gcTimeThreshold), ratioPressure(heap, heapThreshold)),
+                Math.max(ratioPressure(cpu, cpuThreshold), queuePressure));
+        int level = pressure <= 0D ? 0 : Math.max(1, (int) Math.ceil(pressure * MAX_SHED_LEVEL));
+        signals = new Signals(gcRatio, heap, cpu, queuePressure, pressure);
+        updateLevel(level);
+    }
+
+    private void updateLevel(int level) {
+        int current = shedLevel;
+        if (level >= current) {
+            samplesBelow = 0;
+            if (level > current) {
+                changeLevel(current, level);
+            }
+            return;
+        }
+        highestBelow = samplesBelow == 0 ? level : Math.max(highestBelow, level);
+        if (++samplesBelow >= stepDownSamples) {
+            samplesBelow = 0;
+            changeLevel(current, highestBelow);
+        }
+    }
+
+    private void changeLevel(int from, int to) {
+        log.warn("load shedding level changed: {} -> {}, signals: {}", from, to, signals);
+        shedLevel = to;
+    }
+
+    private void sampleQuietly() {
+        try {
+            sample();
+        } catch (Exception e) {
+            log.warn("load shedder sample error", e);
+        }
+    }
+
+    private long totalGcTimeMillis() {
+        long total = 0L;
+        for (GarbageCollectorMXBean collector : collectors) {
+            long time = collector.getCollectionTime();
+            if (time > 0) {
+                total += time;
+            }
+        }
+        return total;
+    }
+
+    private double heapAfterGcRatio() {
+        double ratio = 0D;
+        for (MemoryPoolMXBean pool : tenuredPools) {
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null && usage.getMax() > 0) {
+                ratio = Math.max(ratio, (double) usage.getUsed() / usage.getMax());
+            }
+        }
+        return ratio;
+    }
+
+    private static List<MemoryPoolMXBean> tenuredPools() {
+        List<MemoryPoolMXBean> pools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported() && !isYoungPool(pool.getName())) {
+                pools.add(pool);
+            }
+        }
+        return pools;
+    }
+
+    /**
+     * 各收集器的新生代内存池名称: Eden Space / Survivor Space(Serial), PS Eden Space / PS Survivor Space(Parallel),
+     * G1 Eden Space / G1 Survivor Space(G1), ZGC Young Generation(分代 ZGC)
+     */
+    private static boolean isYoungPool(String name) {
+        return name.contains("Eden") || name.contains("Survivor") || name.contains("Young") || name.contains("Nursery");
+    }
+
+    private double processCpuLoad() {
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            double load = ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuLoad();
+            if (load >= 0D) {
+                return load;
+            }
+        }
+        double average = os.getSystemLoadAverage();
+        return average < 0D ? 0D : Math.min(1D, average / os.getAvailableProcessors());
+    }
+
+    private static double ratioPressure(double value, double threshold) {
+        if (value <= threshold) {
+            return 0D;
+        }
+        return threshold >= 1D ? 1D : Math.min(1D, (value - threshold) / (1D - threshold));
+    }
+
+    private static double checkRatio(double threshold) {
+        if (!(threshold > 0D && threshold <= 1D)) {
+            throw new IllegalArgumentException("threshold must be in (0, 1]: " + threshold);
+        }
+        return threshold;
+    }
+
+    /**
+     * 一次采样的信号快照
+     */
+    @Getter
+    public static final class Signals {
+
+        private final double gcTimeRatio;
+
+        private final double heapAfterGcRatio;
+
+        private final double cpuLoad;
+
+        private final double queuePressure;
+
+        /**
+         * 综合压力值 0~1
+         */
+        private final double pressure;
+
+        private Signals(double gcTimeRatio, double heapAfterGcRatio, double cpuLoad, double queuePressure, double pressure) {
+            this.gcTimeRatio = gcTimeRatio;
+            this.heapAfterGcRatio = heapAfterGcRatio;
+            this.cpuLoad = cpuLoad;
+            this.queuePressure = queuePressure;
+            this.pressure = pressure;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("{gc=%.3f, heap=%.3f, cpu=%.3f, queue=%.3f, pressure=%.3f}",
+                    gcTimeRatio, heapAfterGcRatio, cpuLoad, queuePressure, pressure);
+        }
+    }
+
+    private static final class QueueSignal {
+
+        private final ThreadPoolExecutor pool;
+
+        private final int threshold;
+
+        private QueueSignal(ThreadPoolExecutor pool, int threshold) {
+            this.pool = pool;
+            this.threshold = threshold;
+        }
+
+        private double pressure() {
+            int depth = pool.getQueue().size();
+            return depth <= threshold ? 0D : Math.min(1D, (double) (depth - threshold) / threshold);
+        }
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.xuangy.lib.ratelimit;
+
+import lombok.Getter;
+
+/**
+ * @description: JVM 负载过高时, 低优先级请求被拒绝抛出的异常
+ *               受检异常, 便于与 ThrowsHandler 的 catCh(Class, Consumer) 配合使用:
+ * <pre>
+ * ThrowsHandler.run(() -&gt; {
+ *     loadShedder.admit(LoadShedder.Priority.LOW);
+ *     // dosomething...
+ * }).catCh(LoadSheddingException.class, e -&gt; metrics.shed(e.getPriority()));
+ * </pre>
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 20:10
+ * @see LoadShedder
+ */
+@Getter
+public class LoadSheddingException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final LoadShedder.Priority priority;
+
+    private final int shedLevel;
+
+    public LoadSheddingException(LoadShedder.Priority priority, int shedLevel) {
+        super("load shedding, priority: " + priority + ", shed level: " + shedLevel);
+        this.priority = priority;
+        this.shedLevel = shedLevel;
+    }
+
+    /**
+     * 拒绝属于正常的流控结果, 不需要填充堆栈
+     */
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,104 @@
+package com.xuangy.lib.ratelimit;
+
+import lombok.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 进程内的集群配额协调者, 以令牌桶按全局速率生成令牌
+ *               用于单机验证 / 模拟多节点共享配额, 无需依赖任何网络服务
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 15:10
+ * @see ClusterRateLimiter
+ */
+public class LocalQuotaCoordinator implements QuotaCoordinator {
+
+    private final TimeSource timeSource;
+
+    private final double permitsPerNano;
+
+    private final double capacity;
+
+    private double available;
+
+    private long lastRefillNanos;
+
+    private long leased;
+
+    private long released;
+
+    /**
+     * 桶容量为一秒的全局令牌数
+     *
+     * @param permitsPerSecond 全局每秒令牌数
+     */
+    public LocalQuotaCoordinator(double permitsPerSecond) {
+        this(permitsPerSecond, (long) Math.ceil(permitsPerSecond));
+    }
+
+    /**
+     * @param permitsPerSecond 全局每秒令牌数
+     * @param capacity         桶容量, 即允许的全局突发量
+     */
+    public LocalQuotaCoordinator(double permitsPerSecond, long capacity) {
+        this(permitsPerSecond, capacity, TimeSource.system());
+    }
+
+    /**
+     * @param permitsPerSecond 全局每秒令牌数
+     * @param capacity         桶容量, 即允许的全局突发量
+     * @param timeSource       时间源
+     */
+    public LocalQuotaCoordinator(double permitsPerSecond, long capacity, @NonNull TimeSource timeSource) {
+        if (!(permitsPerSecond > 0D) || capacity <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond and capacity must be positive");
+        }
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = capacity;
+        this.available = capacity;
+        this.timeSource = timeSource;
+        this.lastRefillNanos = timeSource.nanoTime();
+    }
+
+    @Override
+    public synchronized long lease(String nodeId, long requested) {
+        refill();
+        long granted = Math.min(requested, (long) available);
+        if (granted > 0) {
+            available -= granted;
+            leased += granted;
+        }
+        return Math.max(granted, 0L);
+    }
+
+    @Override
+    public synchronized void release(String nodeId, long unused) {
+        if (unused > 0) {
+            refill();
+            available = Math.min(capacity, available + unused);
+            released += unused;
+        }
+    }
+
+    /**
+     * @return 累计租出的令牌数
+     */
+    public synchronized long leasedPermits() {
+        return leased;
+    }
+
+    /**
+     * @return 累计被归还的令牌数
+     */
+    public synchronized long releasedPermits() {
+        return released;
+    }
+
+    private void refill() {
+        long now = timeSource.nanoTime();
+        available = Math.min(capacity, available + (now - lastRefillNanos) * permitsPerNano);
+        lastRefillNanos = now;
+    }
+
+}
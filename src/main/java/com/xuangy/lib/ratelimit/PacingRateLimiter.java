@@ -0,0 +1,280 @@
+package com.xuangy.lib.ratelimit;
+
+import com.xuangy.lib.exception.handler.ThrowsHandler;
+import com.xuangy.lib.exception.handler.ThrowsHandler.PromiseForRunnable;
+import com.xuangy.lib.exception.handler.common.RunnableWithThrow;
+import com.xuangy.lib.utils.TimerWheel;
+import lombok.NonNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 匀速限流器, 许可之间按固定间隔发放, 不允许突发
+ *               支持预热: 创建后的 warmup 时间内, 速率从 coldPermitsPerSecond 线性爬升到 permitsPerSecond,
+ *               用于发布后缓存 / JIT 尚未预热时避免瞬间承接全部流量.
+ *               除阻塞式的 acquire 外, 还可以通过 submit 提交任务, 任务在轮到它的许可时间由时间轮触发执行,
+ *               排队中的任务只占用内存, 不占用线程. 时间轮按真实时间触发, 因此 submit 只支持系统时间源.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 17:20
+ */
+public class PacingRateLimiter implements RateLimiter {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final double permitsPerSecond;
+
+    private final double coldPermitsPerSecond;
+
+    private final long warmupNanos;
+
+    private final long createdNanos;
+
+    private final TimerWheel timer;
+
+    private final Executor executor;
+
+    private final TimeSource timeSource;
+
+    /**
+     * 下一个许可可以发放的时间
+     */
+    private final AtomicLong nextFreeNanos;
+
+    /**
+     * 不预热, 提交的任务在公共 ForkJoinPool 中执行
+     *
+     * @param permitsPerSecond 每秒许可数
+     */
+    public PacingRateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, permitsPerSecond, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 提交的任务在公共 ForkJoinPool 中执行
+     *
+     * @param permitsPerSecond     预热结束后的每秒许可数
+     * @param coldPermitsPerSecond 预热开始时的每秒许可数
+     * @param warmup               预热时长
+     * @param unit                 warmup 的时间单位
+     */
+    public PacingRateLimiter(double permitsPerSecond, double coldPermitsPerSecond, long warmup, TimeUnit unit) {
+        this(permitsPerSecond, coldPermitsPerSecond, warmup, unit, TimeSource.system());
+    }
+
+    /**
+     * 提交的任务在公共 ForkJoinPool 中执行
+     *
+     * @param permitsPerSecond     预热结束后的每秒许可数
+     * @param coldPermitsPerSecond 预热开始时的每秒许可数
+     * @param warmup               预热时长
+     * @param unit                 warmup 的时间单位
+     * @param timeSource           时间源
+     */
+    public PacingRateLimiter(double permitsPerSecond, double coldPermitsPerSecond, long warmup, TimeUnit unit,
+                             TimeSource timeSource) {
+        this(permitsPerSecond, coldPermitsPerSecond, warmup, unit, DefaultTimer.INSTANCE, ForkJoinPool.commonPool(), timeSource);
+    }
+
+    /**
+     * @param permitsPerSecond     预热结束后的每秒许可数
+     * @param coldPermitsPerSecond 预热开始时的每秒许可数
+     * @param warmup               预热时长
+     * @param unit                 warmup 的时间单位
+     * @param timer                触发提交任务的时间轮
+     * @param executor             执行提交任务的线程池
+     */
+    public PacingRateLimiter(double permitsPerSecond, double coldPermitsPerSecond, long warmup, TimeUnit unit,
+                             TimerWheel timer, Executor executor) {
+        this(permitsPerSecond, coldPermitsPerSecond, warmup, unit, timer, executor, TimeSource.system());
+    }
+
+    /**
+     * @param permitsPerSecond     预热结束后的每秒许可数
+     * @param coldPermitsPerSecond 预热开始时的每秒许可数
+     * @param warmup               预热时长
+     * @param unit                 warmup 的时间单位
+     * @param timer                触发提交任务的时间轮
+     * @param executor             执行提交任务的线程池
+     * @param timeSource           时间源, 不是系统时间源时不支持 {@link #submit(RunnableWithThrow)}
+     */
+    public PacingRateLimiter(double permitsPerSecond, double coldPermitsPerSecond, long warmup, @NonNull TimeUnit unit,
+                             @NonNull TimerWheel timer, @NonNull Executor executor, @NonNull TimeSource timeSource) {
+        if (!(permitsPerSecond > 0D) || !(coldPermitsPerSecond > 0D) || warmup < 0) {
+            throw new IllegalArgumentException("rates must be positive and warmup must not be negative");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.coldPermitsPerSecond = coldPermitsPerSecond;
+        this.warmupNanos = unit.toNanos(warmup);
+        this.timer = timer;
+        this.executor = executor;
+        this.timeSource = timeSource;
+        this.createdNanos = timeSource.nanoTime();
+        this.nextFreeNanos = new AtomicLong(createdNanos);
+    }
+
+    /**
+     * 仅当当前时刻已轮到下一个许可时获取成功, 不会阻塞
+     */
+    @Override
+    public boolean tryAcquire(int permits) {
+        checkPermits(permits);
+        while (true) {
+            long now = timeSource.nanoTime();
+            long next = nextFreeNanos.get();
+            if (next - now > 0L) {
+                return false;
+            }
+            if (nextFreeNanos.compareAndSet(next, now + intervalNanos(permits, now))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 在 timeout 内能轮到许可时预约并等待, 否则立即返回 false
+     *
+     * @param permits 许可数量
+     * @param timeout 最长等待时间
+     * @param unit    timeout 的时间单位
+     * @return true: 获取成功, false: 超时时间内无法获取
+     * @throws InterruptedException 等待期间线程被中断, 已预约的许可不会归还
+     */
+    public boolean tryAcquire(int permits, long timeout, @NonNull TimeUnit unit) throws InterruptedException {
+        checkPermits(permits);
+        long timeoutNanos = unit.toNanos(timeout);
+        while (true) {
+            long now = timeSource.nanoTime();
+            long next = nextFreeNanos.get();
+            long start = Math.max(now, next);
+            if (start - now > timeoutNanos) {
+                return false;
+            }
+            if (nextFreeNanos.compareAndSet(next, start + intervalNanos(permits, start))) {
+                sleepUntil(start);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * 预约许可并阻塞等待到许可时间
+     *
+     * @param permits 许可数量
+     * @return 等待的纳秒数
+     * @throws InterruptedException 等待期间线程被中断, 已预约的许可不会归还
+     */
+    public long acquire(int permits) throws InterruptedException {
+        checkPermits(permits);
+        long now = timeSource.nanoTime();
+        long start = reserve(permits, now);
+        sleepUntil(start);
+        return Math.max(0L, start - now);
+    }
+
+    /**
+     * 预约一个许可, 到许可时间后在线程池中执行任务, 不会阻塞调用线程
+     *
+     * @param task 待执行的任务
+     * @param <E>  任务声明的异常
+     * @return 任务执行结束后完成, 结果中包含任务抛出的异常; 时间轮停止导致任务未执行时以取消结束, 并尽量归还预约的许可
+     * @throws IllegalStateException 使用的不是系统时间源
+     */
+    public <E extends Exception> CompletableFuture<PromiseForRunnable<E>> submit(@NonNull RunnableWithThrow<E> task) {
+        if (timeSource != TimeSource.system()) {
+            throw new IllegalStateException("submit requires the system time source, the timer wheel runs in real time");
+        }
+        CompletableFuture<PromiseForRunnable<E>> future = new CompletableFuture<>();
+        long now = timeSource.nanoTime();
+        long start = reserve(1, now);
+        long end = start + intervalNanos(1, start);
+        long delay = start - now;
+        Runnable dispatch = () -> {
+            try {
+                executor.execute(() -> future.complete(ThrowsHandler.run(task)));
+            } catch (RejectedExecutionException e) {
+                future.completeExceptionally(e);
+            }
+        };
+        if (delay <= 0L) {
+            dispatch.run();
+        } else {
+            try {
+                timer.schedule(dispatch, () -> {
+                    unreserve(start, end);
+                    future.cancel(false);
+                }, delay, TimeUnit.NANOSECONDS);
+            } catch (RuntimeException | Error e) {
+                unreserve(start, end);
+                throw e;
+            }
+        }
+        return future;
+    }
+
+    /**
+     * @return 当前时刻允许的每秒许可数
+     */
+    public double currentRate() {
+        return rateAt(timeSource.nanoTime());
+    }
+
+    private long reserve(int permits, long now) {
+        while (true) {
+            long next = nextFreeNanos.get();
+            long start = Math.max(now, next);
+            if (nextFreeNanos.compareAndSet(next, start + intervalNanos(permits, start))) {
+                return start;
+            }
+        }
+    }
+
+    /**
+     * 归还 [start, end) 的预约, 仅当其后没有新的预约时才能归还, 否则该段许可时间作废
+     */
+    private void unreserve(long start, long end) {
+        nextFreeNanos.compareAndSet(end, start);
+    }
+
+    private long intervalNanos(int permits, long at) {
+        return (long) (permits * NANOS_PER_SECOND / rateAt(at));
+    }
+
+    private double rateAt(long at) {
+        long elapsed = at - createdNanos;
+        if (elapsed >= warmupNanos) {
+            return permitsPerSecond;
+        }
+        return coldPermitsPerSecond + (permitsPerSecond - coldPermitsPerSecond) * elapsed / warmupNanos;
+    }
+
+    private static void checkPermits(int permits) {
+        if (permits <= 0) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+    }
+
+    private void sleepUntil(long deadline) throws InterruptedException {
+        long remaining;
+        while ((remaining = deadline - timeSource.nanoTime()) > 0L) {
+            timeSource.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /**
+     * 未指定时间轮时共享的默认时间轮, 首次使用时创建
+     */
+    private static final class DefaultTimer {
+
+        private static final TimerWheel INSTANCE = new TimerWheel("pacing-rate-limiter-timer");
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.xuangy.lib.ratelimit;
+
+/**
+ * @description: 集群配额协调者, 由各节点通过该接口批量租借全局令牌
+ *               实现可以是本进程内的 {@link LocalQuotaCoordinator}, 也可以是基于 RPC / Redis 等的远程实现
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 15:10
+ * @see ClusterRateLimiter
+ */
+public interface QuotaCoordinator {
+
+    /**
+     * 租借一批令牌
+     *
+     * @param nodeId    租借节点
+     * @param requested 期望的令牌数量
+     * @return 实际租到的令牌数量, 取值 [0, requested], 全局配额耗尽时返回 0
+     */
+    long lease(String nodeId, long requested);
+
+    /**
+     * 归还租约到期后未使用的令牌
+     *
+     * @param nodeId 归还节点
+     * @param unused 未使用的令牌数量
+     */
+    void release(String nodeId, long unused);
+}
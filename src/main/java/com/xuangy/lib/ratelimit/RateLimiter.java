@@ -0,0 +1,27 @@
+package com.xuangy.lib.ratelimit;
+
+/**
+ * @description: 限流器, 非阻塞地尝试获取许可
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 15:10
+ */
+public interface RateLimiter {
+
+    /**
+     * 尝试获取许可, 不会阻塞
+     *
+     * @param permits 需要的许可数量
+     * @return true: 获取成功, false: 被限流
+     */
+    boolean tryAcquire(int permits);
+
+    /**
+     * 尝试获取一个许可, 不会阻塞
+     *
+     * @return true: 获取成功, false: 被限流
+     */
+    default boolean tryAcquire() {
+        return tryAcquire(1);
+    }
+}
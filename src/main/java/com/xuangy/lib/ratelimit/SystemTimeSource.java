@@ -0,0 +1,24 @@
+package com.xuangy.lib.ratelimit;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @description: 基于 System.nanoTime() 的系统时间源
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 13:00
+ */
+enum SystemTimeSource implements TimeSource {
+
+    INSTANCE;
+
+    @Override
+    public long nanoTime() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void parkNanos(long nanos) {
+        LockSupport.parkNanos(nanos);
+    }
+}
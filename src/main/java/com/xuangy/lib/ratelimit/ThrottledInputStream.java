@@ -0,0 +1,66 @@
+package com.xuangy.lib.ratelimit;
+
+import lombok.NonNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * @description: 按 {@link ByteRateLimiter} 限制读取速率的输入流
+ *               每次读取不超过 chunkSize 字节, 读取后按实际读到的字节数扣减额度; skip 的字节同样计入.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 10:40
+ */
+public class ThrottledInputStream extends FilterInputStream {
+
+    private final ByteCredit credit;
+
+    /**
+     * @param in        被限速的输入流
+     * @param limiter   带宽限流器, 可被多个流共享
+     * @param chunkSize 每次从限流器预取的字节数
+     */
+    public ThrottledInputStream(@NonNull InputStream in, @NonNull ByteRateLimiter limiter, int chunkSize) {
+        super(in);
+        this.credit = new ByteCredit(limiter, chunkSize);
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b >= 0) {
+            credit.take(1L);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, Math.min(len, credit.chunkSize()));
+        if (n > 0) {
+            credit.take(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = in.skip(Math.min(n, credit.chunkSize()));
+        if (skipped > 0L) {
+            credit.take(skipped);
+        }
+        return skipped;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            credit.release();
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.xuangy.lib.ratelimit;
+
+import lombok.NonNull;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * @description: 按 {@link ByteRateLimiter} 限制写入速率的输出流
+ *               大块写入按 chunkSize 拆分, 每块写入前扣减额度, 直接写入底层流, 不逐字节转发.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 10:40
+ */
+public class ThrottledOutputStream extends FilterOutputStream {
+
+    private final ByteCredit credit;
+
+    /**
+     * @param out       被限速的输出流
+     * @param limiter   带宽限流器, 可被多个流共享
+     * @param chunkSize 每次从限流器预取的字节数
+     */
+    public ThrottledOutputStream(@NonNull OutputStream out, @NonNull ByteRateLimiter limiter, int chunkSize) {
+        super(out);
+        this.credit = new ByteCredit(limiter, chunkSize);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        credit.take(1L);
+        out.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        if ((off | len | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        int chunkSize = credit.chunkSize();
+        while (len > 0) {
+            int n = Math.min(len, chunkSize);
+            credit.take(n);
+            out.write(b, off, n);
+            off += n;
+            len -= n;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            super.close();
+        } finally {
+            credit.release();
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.xuangy.lib.ratelimit;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * @description: 按 {@link ByteRateLimiter} 限制读取速率的通道
+ *               每次读取时临时调小目标 ByteBuffer 的 limit, 使单次读取不超过 chunkSize 字节,
+ *               数据直接读入调用方的 buffer, 不经过额外的拷贝; 读取后按实际读到的字节数扣减额度.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 10:40
+ */
+public class ThrottledReadableByteChannel implements ReadableByteChannel {
+
+    private final ReadableByteChannel channel;
+
+    private final ByteCredit credit;
+
+    /**
+     * @param channel   被限速的通道
+     * @param limiter   带宽限流器, 可被多个通道共享
+     * @param chunkSize 每次从限流器预取的字节数
+     */
+    public ThrottledReadableByteChannel(@NonNull ReadableByteChannel channel, @NonNull ByteRateLimiter limiter, int chunkSize) {
+        this.channel = channel;
+        this.credit = new ByteCredit(limiter, chunkSize);
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws IOException {
+        int limit = dst.limit();
+        int chunkSize = credit.chunkSize();
+        int n;
+        if (dst.remaining() > chunkSize) {
+            dst.limit(dst.position() + chunkSize);
+            try {
+                n = channel.read(dst);
+            } finally {
+                dst.limit(limit);
+            }
+        } else {
+            n = channel.read(dst);
+        }
+        if (n > 0) {
+            credit.take(n);
+        }
+        return n;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            credit.release();
+        }
+    }
+
+}
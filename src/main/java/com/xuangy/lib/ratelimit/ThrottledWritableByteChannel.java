@@ -0,0 +1,72 @@
+package com.xuangy.lib.ratelimit;
+
+import lombok.NonNull;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * @description: 按 {@link ByteRateLimiter} 限制写入速率的通道
+ *               按 chunkSize 分块写入: 每块写入前扣减额度, 并临时调小源 ByteBuffer 的 limit,
+ *               数据直接从调用方的 buffer 写出, 不经过额外的拷贝.
+ *               非阻塞通道未写完一块时停止本次写入, 多扣减的额度留给下次写入使用.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 10:40
+ */
+public class ThrottledWritableByteChannel implements WritableByteChannel {
+
+    private final WritableByteChannel channel;
+
+    private final ByteCredit credit;
+
+    /**
+     * @param channel   被限速的通道
+     * @param limiter   带宽限流器, 可被多个通道共享
+     * @param chunkSize 每次从限流器预取的字节数
+     */
+    public ThrottledWritableByteChannel(@NonNull WritableByteChannel channel, @NonNull ByteRateLimiter limiter, int chunkSize) {
+        this.channel = channel;
+        this.credit = new ByteCredit(limiter, chunkSize);
+    }
+
+    @Override
+    public int write(ByteBuffer src) throws IOException {
+        int limit = src.limit();
+        int chunkSize = credit.chunkSize();
+        int written = 0;
+        try {
+            while (src.hasRemaining()) {
+                int n = Math.min(src.remaining(), chunkSize);
+                credit.take(n);
+                src.limit(src.position() + n);
+                int w = channel.write(src);
+                src.limit(limit);
+                written += w;
+                if (w < n) {
+                    credit.give(n - w);
+                    break;
+                }
+            }
+        } finally {
+            src.limit(limit);
+        }
+        return written;
+    }
+
+    @Override
+    public boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            credit.release();
+        }
+    }
+
+}
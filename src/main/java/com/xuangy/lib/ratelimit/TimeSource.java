@@ -0,0 +1,31 @@
+package com.xuangy.lib.ratelimit;
+
+/**
+ * @description: 限流器读取的时间源
+ *               默认为 {@link #system()}, 即 System.nanoTime() 与 LockSupport.parkNanos;
+ *               替换为虚拟时钟后, 限流器可以在模拟中以远快于真实时间的速度运行, 且结果可复现.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 13:00
+ */
+public interface TimeSource {
+
+    /**
+     * @return 当前时间(纳秒), 与 System.nanoTime() 相同, 只用于计算时间差
+     */
+    long nanoTime();
+
+    /**
+     * 等待一段时间, 可能提前返回, 调用方应循环检查 {@link #nanoTime()}
+     *
+     * @param nanos 等待的纳秒数
+     */
+    void parkNanos(long nanos);
+
+    /**
+     * @return 系统时间源
+     */
+    static TimeSource system() {
+        return SystemTimeSource.INSTANCE;
+    }
+}
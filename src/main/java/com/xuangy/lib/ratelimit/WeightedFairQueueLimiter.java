@@ -0,0 +1,393 @@
+package com.xuangy.lib.ratelimit;
+
+import com.xuangy.lib.exception.handler.ExceptionHandler;
+import com.xuangy.lib.exception.handler.common.RunnableWithThrow;
+import com.xuangy.lib.log.Log;
+import com.xuangy.lib.log.LogSinks;
+import com.xuangy.lib.utils.TimerWheel;
+import lombok.Getter;
+import lombok.NonNull;
+
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: 多租户加权公平排队限流器
+ *               多个命名的优先级类别共享 capacity 个并发执行名额, 名额不足时任务进入各自类别的有界队列,
+ *               名额释放后按差额轮询(Deficit Round Robin)在有积压的类别间分配: 每轮类别获得 weight 个额度.
+ *               提交不会阻塞: 队列已满时直接拒绝.
+ *               线程池拒绝执行时任务放回类别队首并归还名额, retryDelay 后由时间轮重新调度(下一次提交或任务完成也会触发),
+ *               不会丢弃已接受的任务; 拒绝日志不带堆栈, 且每秒最多输出一次.
+ *               提交与调度均不使用全局锁: 类别队列为无锁队列, 调度通过原子计数保证同一时刻只有一个线程在分配名额.
+ *               任务执行失败时仅打印日志, 与 {@link ExceptionHandler#ignoreExceptionWithErrorMsg(RunnableWithThrow, String)} 一致.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 16:30
+ */
+public class WeightedFairQueueLimiter {
+
+    private static final Log log = LogSinks.getLog(WeightedFairQueueLimiter.class);
+
+    /**
+     * 默认的拒绝后重试间隔(毫秒)
+     */
+    private static final long DEFAULT_RETRY_DELAY_MILLIS = 10L;
+
+    /**
+     * 线程池拒绝日志的最小输出间隔
+     */
+    private static final long REJECTION_LOG_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Executor executor;
+
+    private final TimerWheel timer;
+
+    private final long retryDelayNanos;
+
+    /**
+     * 是否已挂起重试定时任务
+     */
+    private final AtomicBoolean retryArmed = new AtomicBoolean();
+
+    private final AtomicInteger available;
+
+    private final ConcurrentMap<String, ClassState> classes = new ConcurrentHashMap<>();
+
+    /**
+     * 有积压任务的类别, 按轮询顺序排列
+     */
+    private final Queue<ClassState> active = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger wip = new AtomicInteger();
+
+    /**
+     * 当前轮次正在分配名额的类别, 仅在调度线程中访问
+     */
+    private ClassState current;
+
+    /**
+     * 上次输出拒绝日志的时间与之后被拒绝的次数, 仅在调度线程中访问
+     */
+    private long lastRejectionLogNanos;
+
+    private long rejectionsSinceLog;
+
+    /**
+     * 线程池拒绝后使用共享的默认时间轮, 10ms 后重试
+     *
+     * @param capacity 共享的并发执行名额
+     * @param executor 执行任务的线程池
+     */
+    public WeightedFairQueueLimiter(int capacity, Executor executor) {
+        this(capacity, executor, DefaultTimer.INSTANCE, DEFAULT_RETRY_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param capacity   共享的并发执行名额
+     * @param executor   执行任务的线程池
+     * @param timer      线程池拒绝后调度重试使用的时间轮
+     * @param retryDelay 线程池拒绝后多久重试
+     * @param unit       retryDelay 的时间单位
+     */
+    public WeightedFairQueueLimiter(int capacity, @NonNull Executor executor, @NonNull TimerWheel timer,
+                                    long retryDelay, @NonNull TimeUnit unit) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        if (retryDelay <= 0) {
+            throw new IllegalArgumentException("retryDelay must be positive: " + retryDelay);
+        }
+        this.available = new AtomicInteger(capacity);
+        this.executor = executor;
+        this.timer = timer;
+        this.retryDelayNanos = unit.toNanos(retryDelay);
+        this.lastRejectionLogNanos = System.nanoTime() - REJECTION_LOG_INTERVAL_NANOS;
+    }
+
+    /**
+     * 注册类别, 已存在时忽略
+     *
+     * @param name         类别名称
+     * @param weight       权重, 每轮可分配的名额
+     * @param maxQueueSize 类别队列上限, 至少为 1: 任务总是先入队再由调度分配名额
+     * @return 链式调用, 返回对象本身
+     */
+    public WeightedFairQueueLimiter registerClass(@NonNull String name, int weight, int maxQueueSize) {
+        if (weight <= 0 || maxQueueSize <= 0) {
+            throw new IllegalArgumentException("weight and maxQueueSize must be positive");
+        }
+        classes.putIfAbsent(name, new ClassState(name, weight, maxQueueSize));
+        return this;
+    }
+
+    /**
+     * 提交任务, 不会阻塞
+     *
+     * @param className 类别名称
+     * @param task      任务
+     * @return true: 任务已执行或已排队, false: 类别队列已满, 任务被拒绝
+     */
+    public boolean submit(@NonNull String className, @NonNull RunnableWithThrow<? extends Exception> task) {
+        ClassState state = classes.get(className);
+        if (state == null) {
+            throw new IllegalArgumentException("unknown class: " + className);
+        }
+        if (state.size.incrementAndGet() > state.maxQueueSize) {
+            state.size.decrementAndGet();
+            state.rejected.increment();
+            return false;
+        }
+        state.queue.offer(task);
+        state.queued.increment();
+        if (state.active.compareAndSet(false, true)) {
+            active.offer(state);
+        }
+        drain();
+        return true;
+    }
+
+    /**
+     * @return 当前空闲的执行名额
+     */
+    public int availableCapacity() {
+        return available.get();
+    }
+
+    /**
+     * @param className 类别名称
+     * @return 类别统计快照, 类别不存在时返回 null
+     */
+    public ClassStats stats(String className) {
+        ClassState state = classes.get(className);
+        return state == null ? null : state.snapshot();
+    }
+
+    /**
+     * @return 所有类别的统计快照
+     */
+    public Map<String, ClassStats> stats() {
+        Map<String, ClassStats> result = new LinkedHashMap<>();
+        for (ClassState state : classes.values()) {
+            result.put(state.name, state.snapshot());
+        }
+        return result;
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            dispatch();
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    /**
+     * 差额轮询分配名额, 仅在 drain 中调用, 同一时刻只有一个线程执行
+     */
+    private void dispatch() {
+        while (true) {
+            ClassState state = current;
+            if (state == null) {
+                state = active.poll();
+                if (state == null) {
+                    return;
+                }
+                state.deficit += state.weight;
+                current = state;
+            }
+            if (state.deficit < 1) {
+                // 本轮额度用完, 排到队尾
+                current = null;
+                active.offer(state);
+                continue;
+            }
+            RunnableWithThrow<? extends Exception> task = state.queue.peek();
+            if (task == null) {
+                current = null;
+                state.deficit = 0;
+                state.active.set(false);
+                if (!state.queue.isEmpty() && state.active.compareAndSet(false, true)) {
+                    active.offer(state);
+                }
+                continue;
+            }
+            if (!reserve()) {
+                return;
+            }
+            state.queue.poll();
+            if (!execute(state, task)) {
+                // 线程池已饱和, 任务放回队首, 由重试定时任务、下一次提交或任务完成重新调度
+                state.queue.offerFirst(task);
+                available.incrementAndGet();
+                armRetry();
+                return;
+            }
+            state.size.decrementAndGet();
+            state.deficit--;
+            state.admitted.increment();
+        }
+    }
+
+    private boolean reserve() {
+        int current;
+        while ((current = available.get()) > 0) {
+            if (available.compareAndSet(current, current - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return false: 线程池拒绝执行
+     */
+    private boolean execute(ClassState state, RunnableWithThrow<? extends Exception> task) {
+        try {
+            executor.execute(() -> {
+                try {
+                    ExceptionHandler.ignoreExceptionWithErrorMsg(task, "fair queue task error, class: " + state.name);
+                } finally {
+                    release();
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            logRejection(state, e);
+            return false;
+        }
+    }
+
+    /**
+     * 只记录异常信息不带堆栈, 间隔内的拒绝合并为一条日志
+     */
+    private void logRejection(ClassState state, RejectedExecutionException e) {
+        rejectionsSinceLog++;
+        long now = System.nanoTime();
+        if (now - lastRejectionLogNanos >= REJECTION_LOG_INTERVAL_NANOS) {
+            log.warn("fair queue executor rejected {} task(s) in the last interval, requeued, class: {}, cause: {}",
+                    rejectionsSinceLog, state.name, e.toString());
+            lastRejectionLogNanos = now;
+            rejectionsSinceLog = 0L;
+        }
+    }
+
+    private void armRetry() {
+        if (retryArmed.compareAndSet(false, true)) {
+            timer.schedule(() -> {
+                retryArmed.set(false);
+                drain();
+            }, () -> retryArmed.set(false), retryDelayNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void release() {
+        available.incrementAndGet();
+        drain();
+    }
+
+    /**
+     * 类别统计快照
+     */
+    @Getter
+    public static class ClassStats {
+
+        private final String name;
+
+        private final int weight;
+
+        /**
+         * 已分配名额开始执行的任务数
+         */
+        private final long admitted;
+
+        /**
+         * 进入队列的任务数
+         */
+        private final long queued;
+
+        /**
+         * 队列已满被拒绝的任务数
+         */
+        private final long rejected;
+
+        /**
+         * 当前排队中的任务数
+         */
+        private final int queueSize;
+
+        ClassStats(String name, int weight, long admitted, long queued, long rejected, int queueSize) {
+            this.name = name;
+            this.weight = weight;
+            this.admitted = admitted;
+            this.queued = queued;
+            this.rejected = rejected;
+            this.queueSize = queueSize;
+        }
+
+        @Override
+        public String toString() {
+            return name + "{weight=" + weight + ", admitted=" + admitted + ", queued=" + queued
+                    + ", rejected=" + rejected + ", queueSize=" + queueSize + "}";
+        }
+    }
+
+    private static final class ClassState {
+
+        private final String name;
+
+        private final int weight;
+
+        private final int maxQueueSize;
+
+        private final Deque<RunnableWithThrow<? extends Exception>> queue = new ConcurrentLinkedDeque<>();
+
+        private final AtomicInteger size = new AtomicInteger();
+
+        private final AtomicBoolean active = new AtomicBoolean();
+
+        private final LongAdder admitted = new LongAdder();
+
+        private final LongAdder queued = new LongAdder();
+
+        private final LongAdder rejected = new LongAdder();
+
+        /**
+         * 剩余额度, 仅在调度线程中访问
+         */
+        private long deficit;
+
+        private ClassState(String name, int weight, int maxQueueSize) {
+            this.name = name;
+            this.weight = weight;
+            this.maxQueueSize = maxQueueSize;
+        }
+
+        private ClassStats snapshot() {
+            return new ClassStats(name, weight, admitted.sum(), queued.sum(), rejected.sum(), size.get());
+        }
+    }
+
+    /**
+     * 未指定时间轮时共享的默认时间轮, 首次使用时创建
+     */
+    private static final class DefaultTimer {
+
+        private static final TimerWheel INSTANCE = new TimerWheel("weighted-fair-queue-retry-timer");
+    }
+
+}
@@ -0,0 +1,37 @@
+package com.xuangy.lib.ratelimit.simulation;
+
+import com.xuangy.lib.ratelimit.RateLimiter;
+import lombok.NonNull;
+
+/**
+ * @description: 模拟中对一次到达的准入判断, 通常是对某个限流器的调用
+ *               限流器需使用与模拟相同的 {@link VirtualClock} 作为时间源;
+ *               阻塞式的获取会推进虚拟时钟, 推进的时长计入该请求的等待时间.
+ * <pre>
+ * HierarchicalRateLimiter limiter = new HierarchicalRateLimiter(global, tenant, user, clock);
+ * Admission admission = (key, permits) -&gt; limiter.tryAcquire(key, "all", permits);
+ * </pre>
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 13:00
+ */
+@FunctionalInterface
+public interface Admission {
+
+    /**
+     * @param key     请求所属的 key
+     * @param permits 需要的许可数量
+     * @return true: 放行, false: 拒绝
+     */
+    boolean tryAdmit(String key, int permits);
+
+    /**
+     * 忽略 key, 直接调用限流器的 tryAcquire
+     *
+     * @param limiter 限流器
+     * @return 准入判断
+     */
+    static Admission of(@NonNull RateLimiter limiter) {
+        return (key, permits) -> limiter.tryAcquire(permits);
+    }
+}
@@ -0,0 +1,45 @@
+package com.xuangy.lib.ratelimit.simulation;
+
+import lombok.Getter;
+import lombok.NonNull;
+
+/**
+ * @description: 一次请求到达
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 13:00
+ */
+@Getter
+public final class Arrival {
+
+    /**
+     * 相对于轨迹起点的到达时间(纳秒)
+     */
+    private final long timeNanos;
+
+    /**
+     * 请求所属的 key, 如租户 / 用户, 用于统计公平性
+     */
+    private final String key;
+
+    private final int permits;
+
+    /**
+     * @param timeNanos 相对于轨迹起点的到达时间(纳秒)
+     * @param key       请求所属的 key
+     * @param permits   需要的许可数量
+     */
+    public Arrival(long timeNanos, @NonNull String key, int permits) {
+        if (timeNanos < 0 || permits <= 0) {
+            throw new IllegalArgumentException("timeNanos must not be negative and permits must be positive");
+        }
+        this.timeNanos = timeNanos;
+        this.key = key;
+        this.permits = permits;
+    }
+
+    @Override
+    public String toString() {
+        return key + "@" + timeNanos + "ns x" + permits;
+    }
+}
@@ -0,0 +1,107 @@
+package com.xuangy.lib.ratelimit.simulation;
+
+import lombok.NonNull;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 按到达时间排序的请求轨迹, 可以是录制的真实流量, 也可以是合成的流量
+ *               合成轨迹由种子决定, 相同参数与种子总是生成相同的轨迹;
+ *               多个 key 的流量通过 {@link #merge(ArrivalTrace...)} 合并为一条轨迹.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 13:00
+ */
+@FunctionalInterface
+public interface ArrivalTrace {
+
+    /**
+     * @return 下一个到达的请求, 轨迹结束时返回 null
+     */
+    Arrival next();
+
+    /**
+     * 录制的轨迹, 请求需按到达时间排序
+     *
+     * @param arrivals 到达的请求
+     * @return 轨迹
+     */
+    static ArrivalTrace recorded(@NonNull Iterable<Arrival> arrivals) {
+        Iterator<Arrival> iterator = arrivals.iterator();
+        return () -> iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * 泊松到达: 到达间隔服从指数分布, 平均速率恒定
+     *
+     * @param key           请求所属的 key
+     * @param ratePerSecond 平均每秒到达数
+     * @param duration      轨迹时长
+     * @param unit          duration 的时间单位
+     * @param seed          随机种子
+     * @return 轨迹
+     */
+    static ArrivalTrace poisson(String key, double ratePerSecond, long duration, @NonNull TimeUnit unit, long seed) {
+        return new PoissonTrace(key, t -> ratePerSecond, ratePerSecond, unit.toNanos(duration), seed);
+    }
+
+    /**
+     * 突发到达: 每个周期开始的 burstLength 内以 burstRate 到达, 其余时间以 baseRate 到达
+     *
+     * @param key         请求所属的 key
+     * @param baseRate    平时每秒到达数
+     * @param burstRate   突发期间每秒到达数
+     * @param burstLength 每个周期中突发的时长
+     * @param period      周期
+     * @param duration    轨迹时长
+     * @param unit        burstLength / period / duration 的时间单位
+     * @param seed        随机种子
+     * @return 轨迹
+     */
+    static ArrivalTrace bursty(String key, double baseRate, double burstRate, long burstLength, long period,
+                               long duration, @NonNull TimeUnit unit, long seed) {
+        long burstNanos = unit.toNanos(burstLength);
+        long periodNanos = unit.toNanos(period);
+        if (periodNanos <= 0 || burstNanos < 0 || burstNanos > periodNanos) {
+            throw new IllegalArgumentException("require 0 <= burstLength <= period and period > 0");
+        }
+        return new PoissonTrace(key, t -> t % periodNanos < burstNanos ? burstRate : baseRate,
+                Math.max(baseRate, burstRate), unit.toNanos(duration), seed);
+    }
+
+    /**
+     * 昼夜周期到达: 速率按正弦曲线变化, rate(t) = meanRate * (1 + amplitude * sin(2 * PI * t / period))
+     *
+     * @param key       请求所属的 key
+     * @param meanRate  平均每秒到达数
+     * @param amplitude 振幅, 取值 [0, 1]
+     * @param period    周期, 如 24 小时
+     * @param duration  轨迹时长
+     * @param unit      period / duration 的时间单位
+     * @param seed      随机种子
+     * @return 轨迹
+     */
+    static ArrivalTrace diurnal(String key, double meanRate, double amplitude, long period, long duration,
+                                @NonNull TimeUnit unit, long seed) {
+        if (amplitude < 0D || amplitude > 1D) {
+            throw new IllegalArgumentException("amplitude must be in [0, 1]: " + amplitude);
+        }
+        double periodNanos = unit.toNanos(period);
+        if (!(periodNanos > 0D)) {
+            throw new IllegalArgumentException("period must be positive: " + period);
+        }
+        return new PoissonTrace(key, t -> meanRate * (1D + amplitude * Math.sin(2D * Math.PI * t / periodNanos)),
+                meanRate * (1D + amplitude), unit.toNanos(duration), seed);
+    }
+
+    /**
+     * 按到达时间合并多条轨迹
+     *
+     * @param traces 待合并的轨迹
+     * @return 轨迹
+     */
+    static ArrivalTrace merge(@NonNull ArrivalTrace... traces) {
+        return new MergedTrace(traces);
+    }
+}
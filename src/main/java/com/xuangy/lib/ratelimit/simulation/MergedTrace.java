@@ -0,0 +1,55 @@
+package com.xuangy.lib.ratelimit.simulation;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * @description: 按到达时间归并多条轨迹, 到达时间相同时按轨迹顺序
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 13:00
+ */
+final class MergedTrace implements ArrivalTrace {
+
+    private final ArrivalTrace[] traces;
+
+    private final PriorityQueue<Head> heads;
+
+    MergedTrace(ArrivalTrace[] traces) {
+        this.traces = traces.clone();
+        this.heads = new PriorityQueue<>(Math.max(1, traces.length),
+                Comparator.comparingLong((Head head) -> head.arrival.getTimeNanos()).thenComparingInt(head -> head.index));
+        for (int i = 0; i < this.traces.length; i++) {
+            offer(i);
+        }
+    }
+
+    @Override
+    public Arrival next() {
+        Head head = heads.poll();
+        if (head == null) {
+            return null;
+        }
+        offer(head.index);
+        return head.arrival;
+    }
+
+    private void offer(int index) {
+        Arrival arrival = traces[index].next();
+        if (arrival != null) {
+            heads.offer(new Head(index, arrival));
+        }
+    }
+
+    private static final class Head {
+
+        private final int index;
+
+        private final Arrival arrival;
+
+        private Head(int index, Arrival arrival) {
+            this.index = index;
+            this.arrival = arrival;
+        }
+    }
+}
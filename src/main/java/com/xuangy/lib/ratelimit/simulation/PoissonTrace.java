@@ -0,0 +1,66 @@
+package com.xuangy.lib.ratelimit.simulation;
+
+import lombok.NonNull;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * @description: 非齐次泊松到达轨迹
+ *               以最大速率生成候选到达, 再按 rate(t) / maxRate 的概率保留(thinning), 速率恒定时即为普通泊松过程.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 13:00
+ */
+final class PoissonTrace implements ArrivalTrace {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final String key;
+
+    private final LongToDoubleFunction rateAt;
+
+    private final double maxRatePerNano;
+
+    private final double maxRate;
+
+    private final long durationNanos;
+
+    private final SplittableRandom random;
+
+    private double time;
+
+    /**
+     * @param key           请求所属的 key
+     * @param rateAt        时刻(纳秒)到每秒到达数的函数
+     * @param maxRate       rateAt 的上界
+     * @param durationNanos 轨迹时长
+     * @param seed          随机种子
+     */
+    PoissonTrace(@NonNull String key, LongToDoubleFunction rateAt, double maxRate, long durationNanos, long seed) {
+        if (!(maxRate > 0D) || durationNanos < 0) {
+            throw new IllegalArgumentException("rate must be positive and duration must not be negative");
+        }
+        this.key = key;
+        this.rateAt = rateAt;
+        this.maxRate = maxRate;
+        this.maxRatePerNano = maxRate / NANOS_PER_SECOND;
+        this.durationNanos = durationNanos;
+        this.random = new SplittableRandom(seed);
+    }
+
+    @Override
+    public Arrival next() {
+        while (true) {
+            time += -Math.log(1D - random.nextDouble()) / maxRatePerNano;
+            if (time >= durationNanos) {
+                return null;
+            }
+            long at = (long) time;
+            if (random.nextDouble() * maxRate < rateAt.applyAsDouble(at)) {
+                return new Arrival(at, key, 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.xuangy.lib.ratelimit.simulation;
+
+import lombok.NonNull;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @description: 在虚拟时钟上回放请求轨迹, 统计限流器的放行速率、拒绝率、公平性与等待延迟
+ *               回放是单线程的: 每个请求到达时把时钟推进到到达时间, 再执行准入判断.
+ *               阻塞式获取推进了时钟时, 后续请求相当于在其后排队, 排队时间同样计入延迟.
+ *               整个过程不读取真实时间, 数小时的流量可以在数秒内回放完毕, 相同的轨迹与参数总是得到相同的结果.
+ * <pre>
+ * VirtualClock clock = new VirtualClock();
+ * PacingRateLimiter limiter = new PacingRateLimiter(100, 100, 0, TimeUnit.SECONDS, clock);
+ * SimulationReport report = Simulation.run(
+ *         ArrivalTrace.diurnal("api", 80, 0.5, 24, 24, TimeUnit.HOURS, 42L), clock, Admission.of(limiter));
+ * </pre>
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 13:00
+ */
+public final class Simulation {
+
+    private Simulation() {
+    }
+
+    /**
+     * @param trace     请求轨迹, 到达时间相对于时钟的当前时间
+     * @param clock     虚拟时钟, 被测限流器应以它为时间源
+     * @param admission 准入判断
+     * @return 模拟报告
+     */
+    public static SimulationReport run(@NonNull ArrivalTrace trace, @NonNull VirtualClock clock, @NonNull Admission admission) {
+        long wallStart = System.nanoTime();
+        long origin = clock.nanoTime();
+        Map<String, long[]> counters = new TreeMap<>();
+        LatencyHistogram latency = new LatencyHistogram();
+        long previous = 0L;
+        Arrival arrival;
+        while ((arrival = trace.next()) != null) {
+            if (arrival.getTimeNanos() < previous) {
+                throw new IllegalArgumentException("arrivals must be ordered by time: " + arrival);
+            }
+            previous = arrival.getTimeNanos();
+            long at = origin + previous;
+            clock.advanceTo(at);
+            // [0]: 到达数, [1]: 放行数
+            long[] counter = counters.computeIfAbsent(arrival.getKey(), k -> new long[2]);
+            counter[0]++;
+            if (admission.tryAdmit(arrival.getKey(), arrival.getPermits())) {
+                counter[1]++;
+                latency.record(clock.nanoTime() - at);
+            }
+        }
+        long simulatedNanos = Math.max(previous, clock.nanoTime() - origin);
+        return new SimulationReport(counters, latency, simulatedNanos, System.nanoTime() - wallStart);
+    }
+
+}
@@ -0,0 +1,188 @@
+package com.xuangy.lib.ratelimit.simulation;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 模拟报告
+ *               公平性为 Jain 指数: 先按各 key 的到达数对总放行数做 max-min 公平分配, 得到每个 key 应得的份额,
+ *               再对 "实际放行数 / 应得份额" 计算 (sum x)^2 / (n * sum x^2), 取值 (0, 1], 1 表示完全公平.
+ *               延迟只统计被放行的请求, 为从到达到放行经过的虚拟时间.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 13:00
+ */
+@Getter
+public final class SimulationReport {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * 模拟的虚拟时长
+     */
+    private final long simulatedNanos;
+
+    /**
+     * 模拟实际耗费的真实时长
+     */
+    private final long wallNanos;
+
+    private final long offered;
+
+    private final long admitted;
+
+    private final double jainFairness;
+
+    /**
+     * 各 key 的统计, 按 key 排序
+     */
+    private final Map<String, KeyStats> keys;
+
+    @Getter(AccessLevel.NONE)
+    private final LatencyHistogram latency;
+
+    SimulationReport(Map<String, long[]> counters, LatencyHistogram latency, long simulatedNanos, long wallNanos) {
+        this.simulatedNanos = simulatedNanos;
+        this.wallNanos = wallNanos;
+        this.latency = latency;
+        long offeredSum = 0L;
+        long admittedSum = 0L;
+        for (long[] counter : counters.values()) {
+            offeredSum += counter[0];
+            admittedSum += counter[1];
+        }
+        this.offered = offeredSum;
+        this.admitted = admittedSum;
+        Map<String, Double> shares = fairShares(counters, admittedSum);
+        Map<String, KeyStats> stats = new LinkedHashMap<>();
+        double sum = 0D;
+        double squareSum = 0D;
+        for (Map.Entry<String, long[]> entry : counters.entrySet()) {
+            double share = shares.get(entry.getKey());
+            KeyStats keyStats = new KeyStats(entry.getKey(), entry.getValue()[0], entry.getValue()[1], share);
+            stats.put(entry.getKey(), keyStats);
+            double x = share > 0D ? keyStats.admitted / share : 1D;
+            sum += x;
+            squareSum += x * x;
+        }
+        this.keys = Collections.unmodifiableMap(stats);
+        this.jainFairness = squareSum > 0D ? sum * sum / (counters.size() * squareSum) : 1D;
+    }
+
+    public long getRejected() {
+        return offered - admitted;
+    }
+
+    /**
+     * @return 每秒放行的请求数
+     */
+    public double admittedRate() {
+        return simulatedNanos > 0L ? admitted * NANOS_PER_SECOND / simulatedNanos : 0D;
+    }
+
+    /**
+     * @return 每秒到达的请求数
+     */
+    public double offeredRate() {
+        return simulatedNanos > 0L ? offered * NANOS_PER_SECOND / simulatedNanos : 0D;
+    }
+
+    /**
+     * @return 被拒绝的请求占比, 取值 [0, 1]
+     */
+    public double rejectionRate() {
+        return offered > 0L ? (double) getRejected() / offered : 0D;
+    }
+
+    /**
+     * @param percentile 百分位, 取值 [0, 100]
+     * @return 被放行请求的等待延迟(纳秒), 相对误差约 3%
+     */
+    public long latencyNanos(double percentile) {
+        return latency.percentile(percentile);
+    }
+
+    /**
+     * @return 被放行请求的最大等待延迟(纳秒)
+     */
+    public long maxLatencyNanos() {
+        return latency.max();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append(String.format("simulated %.1fs in %.1fms, offered %d (%.2f/s), admitted %d (%.2f/s), rejection %.2f%%, jain %.4f%n",
+                simulatedNanos / NANOS_PER_SECOND, wallNanos / 1e6, offered, offeredRate(), admitted, admittedRate(),
+                rejectionRate() * 100D, jainFairness));
+        builder.append(String.format("latency p50 %.3fms, p90 %.3fms, p99 %.3fms, p99.9 %.3fms, max %.3fms",
+                latencyNanos(50D) / 1e6, latencyNanos(90D) / 1e6, latencyNanos(99D) / 1e6, latencyNanos(99.9D) / 1e6,
+                maxLatencyNanos() / 1e6));
+        for (KeyStats keyStats : keys.values()) {
+            builder.append(System.lineSeparator()).append("  ").append(keyStats);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 按到达数对 total 做 max-min 公平分配(注水法): 需求小于平均份额的 key 得到全部需求, 剩余部分由其他 key 均分
+     */
+    private static Map<String, Double> fairShares(Map<String, long[]> counters, long total) {
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(counters.entrySet());
+        entries.sort((a, b) -> Long.compare(a.getValue()[0], b.getValue()[0]));
+        Map<String, Double> shares = new LinkedHashMap<>();
+        double remaining = total;
+        for (int i = 0; i < entries.size(); i++) {
+            double share = Math.min(entries.get(i).getValue()[0], remaining / (entries.size() - i));
+            shares.put(entries.get(i).getKey(), share);
+            remaining -= share;
+        }
+        return shares;
+    }
+
+    /**
+     * 单个 key 的统计
+     */
+    @Getter
+    public static final class KeyStats {
+
+        private final String key;
+
+        private final long offered;
+
+        private final long admitted;
+
+        /**
+         * max-min 公平分配下应得的放行数
+         */
+        private final double fairShare;
+
+        KeyStats(String key, long offered, long admitted, double fairShare) {
+            this.key = key;
+            this.offered = offered;
+            this.admitted = admitted;
+            this.fairShare = fairShare;
+        }
+
+        /**
+         * @return 放行占到达的比例
+         */
+        public double admittedRatio() {
+            return offered > 0L ? (double) admitted / offered : 0D;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s{offered=%d, admitted=%d, fairShare=%.1f, admittedRatio=%.4f}",
+                    key, offered, admitted, fairShare, admittedRatio());
+        }
+    }
+
+}
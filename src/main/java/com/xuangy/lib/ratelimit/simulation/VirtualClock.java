@@ -0,0 +1,66 @@
+package com.xuangy.lib.ratelimit.simulation;
+
+import com.xuangy.lib.ratelimit.TimeSource;
+import lombok.NonNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 虚拟时钟, 只在显式推进时前进
+ *               parkNanos 不会真正等待, 而是把时钟向前推进等待的时长, 因此阻塞式获取许可在虚拟时钟上立即返回,
+ *               返回时时钟已经走到许可发放的时刻.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/19 13:00
+ */
+public class VirtualClock implements TimeSource {
+
+    private final AtomicLong now;
+
+    public VirtualClock() {
+        this(0L);
+    }
+
+    /**
+     * @param startNanos 初始时间
+     */
+    public VirtualClock(long startNanos) {
+        this.now = new AtomicLong(startNanos);
+    }
+
+    @Override
+    public long nanoTime() {
+        return now.get();
+    }
+
+    @Override
+    public void parkNanos(long nanos) {
+        if (nanos > 0L) {
+            now.addAndGet(nanos);
+        }
+    }
+
+    /**
+     * @param duration 推进的时长
+     * @param unit     duration 的时间单位
+     * @return 推进后的时间
+     */
+    public long advance(long duration, @NonNull TimeUnit unit) {
+        if (duration < 0) {
+            throw new IllegalArgumentException("duration must not be negative: " + duration);
+        }
+        return now.addAndGet(unit.toNanos(duration));
+    }
+
+    /**
+     * 推进到指定时间, 早于当前时间时不变
+     *
+     * @param nanos 目标时间
+     * @return 推进后的时间
+     */
+    public long advanceTo(long nanos) {
+        return now.accumulateAndGet(nanos, (current, target) -> target - current > 0L ? target : current);
+    }
+
+}
@@ -0,0 +1,234 @@
+package com.xuangy.lib.utils;
+
+import java.util.Arrays;
+
+/**
+ * @description: long -> long 的开放寻址哈希表(线性探测), key 与 value 均不装箱
+ *               适合按用户 id 计数等大量 {@code Map<Long, Long>} 场景, 每个元素仅占两个 long 槽位.
+ *               key 为 0 时单独存储, 删除使用向后移位, 不留墓碑.
+ *               非线程安全, 并发访问需由调用方自行同步.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 13:20
+ */
+public class LongLongMap {
+
+    /**
+     * 遍历元素的回调
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+
+        void accept(long key, long value);
+    }
+
+    private final float loadFactor;
+
+    private long[] keys;
+
+    private long[] values;
+
+    private int mask;
+
+    private int resizeAt;
+
+    private int size;
+
+    private boolean hasZeroKey;
+
+    private long zeroValue;
+
+    public LongLongMap() {
+        this(PrimitiveHash.DEFAULT_EXPECTED_SIZE, PrimitiveHash.DEFAULT_LOAD_FACTOR);
+    }
+
+    public LongLongMap(int expectedSize) {
+        this(expectedSize, PrimitiveHash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize 预期元素个数, 达到该个数前不会扩容
+     * @param loadFactor   负载因子, 取值 (0, 1)
+     */
+    public LongLongMap(int expectedSize, float loadFactor) {
+        this.loadFactor = loadFactor;
+        allocate(PrimitiveHash.tableSize(expectedSize, loadFactor, PrimitiveHash.MAX_CAPACITY));
+    }
+
+    /**
+     * @param key 键
+     * @return key 对应的值, 不存在时返回 0
+     */
+    public long get(long key) {
+        return getOrDefault(key, 0L);
+    }
+
+    public long getOrDefault(long key, long defaultValue) {
+        if (key == 0L) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int index = PrimitiveHash.probe(keys, mask, key);
+        return index < 0 ? defaultValue : values[index];
+    }
+
+    public boolean containsKey(long key) {
+        return key == 0L ? hasZeroKey : PrimitiveHash.probe(keys, mask, key) >= 0;
+    }
+
+    /**
+     * @param key   键
+     * @param value 值
+     * @return 原来的值, 不存在时返回 0
+     */
+    public long put(long key, long value) {
+        if (key == 0L) {
+            long previous = zeroValue;
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+                return 0L;
+            }
+            return previous;
+        }
+        int index = PrimitiveHash.probe(keys, mask, key);
+        if (index >= 0) {
+            long previous = values[index];
+            values[index] = value;
+            return previous;
+        }
+        index = insertionSlot(key, index);
+        keys[index] = key;
+        values[index] = value;
+        size++;
+        return 0L;
+    }
+
+    /**
+     * 累加计数, key 不存在时视为 0
+     *
+     * @param key   键
+     * @param delta 增量
+     * @return 累加后的值
+     */
+    public long addTo(long key, long delta) {
+        if (key == 0L) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            return zeroValue += delta;
+        }
+        int index = PrimitiveHash.probe(keys, mask, key);
+        if (index >= 0) {
+            return values[index] += delta;
+        }
+        index = insertionSlot(key, index);
+        keys[index] = key;
+        values[index] = delta;
+        size++;
+        return delta;
+    }
+
+    /**
+     * @param key 键
+     * @return true: 存在并已删除, false: 不存在
+     */
+    public boolean remove(long key) {
+        if (key == 0L) {
+            if (!hasZeroKey) {
+                return false;
+            }
+            hasZeroKey = false;
+            zeroValue = 0L;
+            size--;
+            return true;
+        }
+        int index = PrimitiveHash.probe(keys, mask, key);
+        if (index < 0) {
+            return false;
+        }
+        shiftKeys(index);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        hasZeroKey = false;
+        zeroValue = 0L;
+        size = 0;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        if (hasZeroKey) {
+            consumer.accept(0L, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0L) {
+                consumer.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return 哈希表数组占用的堆内存字节数(不含对象头)
+     */
+    public long memoryUsage() {
+        return (long) keys.length * (Long.BYTES + Long.BYTES);
+    }
+
+    /**
+     * 插入新 key 前检查容量, 需要扩容时先扩容再重新定位, 已达到最大容量时抛出异常且不修改集合
+     *
+     * @param probe {@link PrimitiveHash#probe} 返回的负值
+     * @return 插入位置
+     */
+    private int insertionSlot(long key, int probe) {
+        if (size + 1 < resizeAt) {
+            return -probe - 1;
+        }
+        rehash(PrimitiveHash.nextCapacity(keys.length, size, "LongLongMap"));
+        return -PrimitiveHash.probe(keys, mask, key) - 1;
+    }
+
+    private void shiftKeys(int removed) {
+        int slot;
+        while ((slot = PrimitiveHash.nextShiftSlot(keys, mask, removed)) >= 0) {
+            keys[removed] = keys[slot];
+            values[removed] = values[slot];
+            removed = slot;
+        }
+        keys[removed] = 0L;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = PrimitiveHash.resizeThreshold(capacity, loadFactor);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != 0L) {
+                int index = PrimitiveHash.freeSlot(keys, mask, key);
+                keys[index] = key;
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,166 @@
+package com.xuangy.lib.utils;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * @description: long 的开放寻址哈希集合(线性探测), 元素不装箱
+ *               适合去重等大量 {@code Set<Long>} 场景, 每个元素仅占一个 long 槽位.
+ *               0 单独存储, 删除使用向后移位, 不留墓碑.
+ *               非线程安全, 并发访问需由调用方自行同步.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 13:20
+ */
+public class LongSet {
+
+    private final float loadFactor;
+
+    private long[] keys;
+
+    private int mask;
+
+    private int resizeAt;
+
+    private int size;
+
+    private boolean hasZero;
+
+    public LongSet() {
+        this(PrimitiveHash.DEFAULT_EXPECTED_SIZE, PrimitiveHash.DEFAULT_LOAD_FACTOR);
+    }
+
+    public LongSet(int expectedSize) {
+        this(expectedSize, PrimitiveHash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize 预期元素个数, 达到该个数前不会扩容
+     * @param loadFactor   负载因子, 取值 (0, 1)
+     */
+    public LongSet(int expectedSize, float loadFactor) {
+        this.loadFactor = loadFactor;
+        allocate(PrimitiveHash.tableSize(expectedSize, loadFactor, PrimitiveHash.MAX_CAPACITY));
+    }
+
+    public boolean contains(long value) {
+        return value == 0L ? hasZero : PrimitiveHash.probe(keys, mask, value) >= 0;
+    }
+
+    /**
+     * @param value 元素
+     * @return true: 新加入的元素, false: 元素已存在
+     */
+    public boolean add(long value) {
+        if (value == 0L) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int index = PrimitiveHash.probe(keys, mask, value);
+        if (index >= 0) {
+            return false;
+        }
+        index = insertionSlot(value, index);
+        keys[index] = value;
+        size++;
+        return true;
+    }
+
+    /**
+     * @param value 元素
+     * @return true: 存在并已删除, false: 不存在
+     */
+    public boolean remove(long value) {
+        if (value == 0L) {
+            if (!hasZero) {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+        int index = PrimitiveHash.probe(keys, mask, value);
+        if (index < 0) {
+            return false;
+        }
+        shiftKeys(index);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        hasZero = false;
+        size = 0;
+    }
+
+    public void forEach(LongConsumer consumer) {
+        if (hasZero) {
+            consumer.accept(0L);
+        }
+        for (long key : keys) {
+            if (key != 0L) {
+                consumer.accept(key);
+            }
+        }
+    }
+
+    /**
+     * @return 哈希表数组占用的堆内存字节数(不含对象头)
+     */
+    public long memoryUsage() {
+        return (long) keys.length * Long.BYTES;
+    }
+
+    /**
+     * 插入新元素前检查容量, 需要扩容时先扩容再重新定位, 已达到最大容量时抛出异常且不修改集合
+     *
+     * @param probe {@link PrimitiveHash#probe} 返回的负值
+     * @return 插入位置
+     */
+    private int insertionSlot(long value, int probe) {
+        if (size + 1 < resizeAt) {
+            return -probe - 1;
+        }
+        rehash(PrimitiveHash.nextCapacity(keys.length, size, "LongSet"));
+        return -PrimitiveHash.probe(keys, mask, value) - 1;
+    }
+
+    private void shiftKeys(int removed) {
+        int slot;
+        while ((slot = PrimitiveHash.nextShiftSlot(keys, mask, removed)) >= 0) {
+            keys[removed] = keys[slot];
+            removed = slot;
+        }
+        keys[removed] = 0L;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = PrimitiveHash.resizeThreshold(capacity, loadFactor);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        allocate(capacity);
+        for (long key : oldKeys) {
+            if (key != 0L) {
+                keys[PrimitiveHash.freeSlot(keys, mask, key)] = key;
+            }
+        }
+    }
+
+}
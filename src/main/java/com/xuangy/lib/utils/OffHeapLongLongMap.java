@@ -0,0 +1,400 @@
+package com.xuangy.lib.utils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * @description: long -> long 的堆外开放寻址哈希表(线性探测), 数据存放于直接内存 {@link ByteBuffer} 中
+ *               用于千万级以上元素的计数 / 映射, 哈希表本身不占用堆内存, 不参与 GC 扫描与复制.
+ *               槽位按页(每页 2^20 个槽位, 16MB)分配, 单个表最多 2^30 个槽位.
+ *               key 为 0 时单独存储, 删除使用向后移位, 不留墓碑.
+ *               扩容后旧页在复制完成时立即释放; 不再使用时应调用 {@link #close()} 释放全部直接内存,
+ *               未关闭的表只能等 GC 回收 ByteBuffer 后由 Cleaner 释放.
+ *               直接内存总量受 -XX:MaxDirectMemorySize 限制(默认与最大堆相同), 扩容期间旧表与两倍大小的新表同时存在,
+ *               需预留扩容前 {@link #offHeapBytes()} 的 3 倍, 否则扩容时抛出 OutOfMemoryError: Direct buffer memory.
+ *               非线程安全, 并发访问需由调用方自行同步.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 14:02
+ * @see LongLongMap
+ */
+public class OffHeapLongLongMap implements AutoCloseable {
+
+    /**
+     * 每个槽位 16 字节: 8 字节 key + 8 字节 value
+     */
+    private static final int SLOT_SHIFT = 4;
+
+    private static final int PAGE_SHIFT = 20;
+
+    private static final int PAGE_SLOTS = 1 << PAGE_SHIFT;
+
+    private static final int PAGE_MASK = PAGE_SLOTS - 1;
+
+    private final float loadFactor;
+
+    private ByteBuffer[] pages;
+
+    private int capacity;
+
+    private int mask;
+
+    private int resizeAt;
+
+    private int size;
+
+    private boolean hasZeroKey;
+
+    private long zeroValue;
+
+    public OffHeapLongLongMap(int expectedSize) {
+        this(expectedSize, PrimitiveHash.DEFAULT_LOAD_FACTOR);
+    }
+
+    /**
+     * @param expectedSize 预期元素个数, 达到该个数前不会扩容
+     * @param loadFactor   负载因子, 取值 (0, 1)
+     */
+    public OffHeapLongLongMap(int expectedSize, float loadFactor) {
+        this.loadFactor = loadFactor;
+        allocate(PrimitiveHash.tableSize(expectedSize, loadFactor, PrimitiveHash.MAX_CAPACITY));
+    }
+
+    /**
+     * @param key 键
+     * @return key 对应的值, 不存在时返回 0
+     */
+    public long get(long key) {
+        return getOrDefault(key, 0L);
+    }
+
+    public long getOrDefault(long key, long defaultValue) {
+        checkOpen();
+        if (key == 0L) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int index = indexOf(key);
+        return index < 0 ? defaultValue : valueAt(index);
+    }
+
+    public boolean containsKey(long key) {
+        checkOpen();
+        return key == 0L ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * @param key   键
+     * @param value 值
+     * @return 原来的值, 不存在时返回 0
+     */
+    public long put(long key, long value) {
+        checkOpen();
+        if (key == 0L) {
+            long previous = zeroValue;
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+                return 0L;
+            }
+            return previous;
+        }
+        int index = PrimitiveHash.mix(key) & mask;
+        long current;
+        while ((current = keyAt(index)) != 0L) {
+            if (current == key) {
+                long previous = valueAt(index);
+                setValue(index, value);
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        setSlot(insertionSlot(key, index), key, value);
+        size++;
+        return 0L;
+    }
+
+    /**
+     * 累加计数, key 不存在时视为 0
+     *
+     * @param key   键
+     * @param delta 增量
+     * @return 累加后的值
+     */
+    public long addTo(long key, long delta) {
+        checkOpen();
+        if (key == 0L) {
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            return zeroValue += delta;
+        }
+        int index = PrimitiveHash.mix(key) & mask;
+        long current;
+        while ((current = keyAt(index)) != 0L) {
+            if (current == key) {
+                long value = valueAt(index) + delta;
+                setValue(index, value);
+                return value;
+            }
+            index = (index + 1) & mask;
+        }
+        setSlot(insertionSlot(key, index), key, delta);
+        size++;
+        return delta;
+    }
+
+    /**
+     * @param key 键
+     * @return true: 存在并已删除, false: 不存在
+     */
+    public boolean remove(long key) {
+        checkOpen();
+        if (key == 0L) {
+            if (!hasZeroKey) {
+                return false;
+            }
+            hasZeroKey = false;
+            zeroValue = 0L;
+            size--;
+            return true;
+        }
+        int index = indexOf(key);
+        if (index < 0) {
+            return false;
+        }
+        shiftKeys(index);
+        size--;
+        return true;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        checkOpen();
+        for (int i = 0; i < capacity; i++) {
+            setKey(i, 0L);
+        }
+        hasZeroKey = false;
+        zeroValue = 0L;
+        size = 0;
+    }
+
+    public void forEach(LongLongMap.EntryConsumer consumer) {
+        checkOpen();
+        if (hasZeroKey) {
+            consumer.accept(0L, zeroValue);
+        }
+        for (int i = 0; i < capacity; i++) {
+            long key = keyAt(i);
+            if (key != 0L) {
+                consumer.accept(key, valueAt(i));
+            }
+        }
+    }
+
+    /**
+     * @return 占用的直接内存字节数, 关闭后为 0
+     */
+    public long offHeapBytes() {
+        return (long) capacity << SLOT_SHIFT;
+    }
+
+    /**
+     * 立即释放全部直接内存, 之后再访问抛出 IllegalStateException; 重复调用无影响
+     */
+    @Override
+    public void close() {
+        ByteBuffer[] released = pages;
+        if (released == null) {
+            return;
+        }
+        pages = null;
+        capacity = 0;
+        size = 0;
+        hasZeroKey = false;
+        zeroValue = 0L;
+        free(released);
+    }
+
+    private void checkOpen() {
+        if (pages == null) {
+            throw new IllegalStateException("OffHeapLongLongMap already closed");
+        }
+    }
+
+    /**
+     * 插入新 key 前检查容量, 需要扩容时先扩容再重新定位, 已达到最大容量时抛出异常且不修改集合
+     *
+     * @param index 探测结束时的空槽位
+     * @return 插入位置
+     */
+    private int insertionSlot(long key, int index) {
+        if (size + 1 < resizeAt) {
+            return index;
+        }
+        rehash(PrimitiveHash.nextCapacity(capacity, size, "OffHeapLongLongMap"));
+        index = PrimitiveHash.mix(key) & mask;
+        while (keyAt(index) != 0L) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private int indexOf(long key) {
+        int index = PrimitiveHash.mix(key) & mask;
+        long current;
+        while ((current = keyAt(index)) != 0L) {
+            if (current == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void shiftKeys(int removed) {
+        int slot = removed;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long current = keyAt(slot);
+            if (current == 0L) {
+                break;
+            }
+            if (!PrimitiveHash.stayInPlace(removed, slot, PrimitiveHash.mix(current) & mask)) {
+                setSlot(removed, current, valueAt(slot));
+                removed = slot;
+            }
+        }
+        setKey(removed, 0L);
+    }
+
+    private long keyAt(int slot) {
+        return pages[slot >>> PAGE_SHIFT].getLong((slot & PAGE_MASK) << SLOT_SHIFT);
+    }
+
+    private long valueAt(int slot) {
+        return pages[slot >>> PAGE_SHIFT].getLong(((slot & PAGE_MASK) << SLOT_SHIFT) + Long.BYTES);
+    }
+
+    private void setKey(int slot, long key) {
+        pages[slot >>> PAGE_SHIFT].putLong((slot & PAGE_MASK) << SLOT_SHIFT, key);
+    }
+
+    private void setValue(int slot, long value) {
+        pages[slot >>> PAGE_SHIFT].putLong(((slot & PAGE_MASK) << SLOT_SHIFT) + Long.BYTES, value);
+    }
+
+    private void setSlot(int slot, long key, long value) {
+        ByteBuffer page = pages[slot >>> PAGE_SHIFT];
+        int offset = (slot & PAGE_MASK) << SLOT_SHIFT;
+        page.putLong(offset, key);
+        page.putLong(offset + Long.BYTES, value);
+    }
+
+    private void allocate(int newCapacity) {
+        int pageSlots = Math.min(newCapacity, PAGE_SLOTS);
+        ByteBuffer[] newPages = new ByteBuffer[newCapacity / pageSlots];
+        for (int i = 0; i < newPages.length; i++) {
+            // allocateDirect 分配的内存已清零, 即所有槽位为空
+            newPages[i] = ByteBuffer.allocateDirect(pageSlots << SLOT_SHIFT).order(ByteOrder.nativeOrder());
+        }
+        pages = newPages;
+        capacity = newCapacity;
+        mask = newCapacity - 1;
+        resizeAt = PrimitiveHash.resizeThreshold(newCapacity, loadFactor);
+    }
+
+    private void rehash(int newCapacity) {
+        ByteBuffer[] oldPages = pages;
+        int oldCapacity = capacity;
+        int oldPageSlots = Math.min(oldCapacity, PAGE_SLOTS);
+        allocate(newCapacity);
+        for (int i = 0; i < oldCapacity; i++) {
+            ByteBuffer page = oldPages[i / oldPageSlots];
+            int offset = (i % oldPageSlots) << SLOT_SHIFT;
+            long key = page.getLong(offset);
+            if (key != 0L) {
+                int index = PrimitiveHash.mix(key) & mask;
+                while (keyAt(index) != 0L) {
+                    index = (index + 1) & mask;
+                }
+                setSlot(index, key, page.getLong(offset + Long.BYTES));
+            }
+        }
+        free(oldPages);
+    }
+
+    private static void free(ByteBuffer[] released) {
+        for (ByteBuffer page : released) {
+            DirectMemory.free(page);
+        }
+    }
+
+    /**
+     * 立即释放 DirectByteBuffer 的直接内存: JDK 9+ 使用 sun.misc.Unsafe#invokeCleaner,
+     * JDK 8 使用 DirectBuffer#cleaner; 均不可用时不做处理, 由 GC 回收
+     */
+    private static final class DirectMemory {
+
+        private static final Object UNSAFE;
+
+        private static final Method INVOKE_CLEANER;
+
+        private static final Method CLEANER;
+
+        private static final Method CLEAN;
+
+        static {
+            Object unsafe = null;
+            Method invokeCleaner = null;
+            Method cleaner = null;
+            Method clean = null;
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                Field field = unsafeClass.getDeclaredField("theUnsafe");
+                field.setAccessible(true);
+                unsafe = field.get(null);
+            } catch (Exception | LinkageError e) {
+                invokeCleaner = null;
+                try {
+                    cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+                    clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+                } catch (Exception | LinkageError ignored) {
+                    cleaner = null;
+                    clean = null;
+                }
+            }
+            UNSAFE = unsafe;
+            INVOKE_CLEANER = invokeCleaner;
+            CLEANER = cleaner;
+            CLEAN = clean;
+        }
+
+        private static void free(ByteBuffer buffer) {
+            try {
+                if (INVOKE_CLEANER != null) {
+                    INVOKE_CLEANER.invoke(UNSAFE, buffer);
+                } else if (CLEAN != null) {
+                    Object cleaner = CLEANER.invoke(buffer);
+                    if (cleaner != null) {
+                        CLEAN.invoke(cleaner);
+                    }
+                }
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                // 无法主动释放时交给 GC
+            }
+        }
+    }
+
+}
@@ -0,0 +1,129 @@
+package com.xuangy.lib.utils;
+
+/**
+ * @description: 基本类型开放寻址集合的公共哈希、容量计算, 以及堆内 long[] 表的线性探测、向后移位删除与扩容定位
+ *               这里只处理 key 数组, value 的移动由各集合以具体类型的数组赋值完成, 避免每个槽位一次无类型的 System.arraycopy.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 13:20
+ */
+final class PrimitiveHash {
+
+    static final float DEFAULT_LOAD_FACTOR = 0.75F;
+
+    static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private PrimitiveHash() {
+    }
+
+    /**
+     * 对 key 做扰动, 避免连续 id 在线性探测时聚集
+     */
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        h ^= h >>> 32;
+        return (int) (h ^ (h >>> 16));
+    }
+
+    /**
+     * @return 容纳 expectedSize 个元素所需的 2 的幂次容量
+     */
+    static int tableSize(int expectedSize, float loadFactor, int maxCapacity) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        if (!(loadFactor > 0F && loadFactor < 1F)) {
+            throw new IllegalArgumentException("loadFactor must be in (0, 1): " + loadFactor);
+        }
+        long required = (long) Math.ceil(Math.max(expectedSize, 2) / (double) loadFactor);
+        if (required > maxCapacity) {
+            throw new IllegalArgumentException("expectedSize too large: " + expectedSize);
+        }
+        return Math.max(4, Integer.highestOneBit((int) required - 1) << 1);
+    }
+
+    static int resizeThreshold(int capacity, float loadFactor) {
+        return Math.min(capacity - 1, (int) (capacity * loadFactor));
+    }
+
+    /**
+     * 删除 removed 位置后, 判断 slot 位置上理想下标为 ideal 的元素是否需要保持原位(向后移位删除)
+     */
+    static boolean stayInPlace(int removed, int slot, int ideal) {
+        return removed <= slot ? removed < ideal && ideal <= slot : removed < ideal || ideal <= slot;
+    }
+
+    /**
+     * @param capacity 当前容量
+     * @param size     当前元素个数
+     * @param owner    集合类名, 用于异常信息
+     * @return 扩容后的容量
+     * @throws IllegalStateException 已达到最大容量, 此时集合未被修改
+     */
+    static int nextCapacity(int capacity, int size, String owner) {
+        if (capacity >= MAX_CAPACITY) {
+            throw new IllegalStateException(owner + " capacity exceeded: " + size);
+        }
+        return capacity << 1;
+    }
+
+    /**
+     * 线性探测查找 key, key 不能为 0
+     *
+     * @return key 所在下标; 不存在时返回 -(插入位置 + 1)
+     */
+    static int probe(long[] keys, int mask, long key) {
+        int index = mix(key) & mask;
+        long current;
+        while ((current = keys[index]) != 0L) {
+            if (current == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -index - 1;
+    }
+
+    /**
+     * 向后移位删除: 从 removed 之后沿探测链查找需要前移到 removed 位置的元素
+     * <pre>
+     * int slot;
+     * while ((slot = PrimitiveHash.nextShiftSlot(keys, mask, removed)) &gt;= 0) {
+     *     keys[removed] = keys[slot];
+     *     values[removed] = values[slot];
+     *     removed = slot;
+     * }
+     * keys[removed] = 0L;
+     * </pre>
+     *
+     * @return 需要前移的元素下标, 探测链已结束时返回 -1
+     */
+    static int nextShiftSlot(long[] keys, int mask, int removed) {
+        int slot = removed;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long current = keys[slot];
+            if (current == 0L) {
+                return -1;
+            }
+            if (!stayInPlace(removed, slot, mix(current) & mask)) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * 扩容时为已知不在表中的 key 查找空槽位, key 不能为 0
+     *
+     * @return 插入位置
+     */
+    static int freeSlot(long[] keys, int mask, long key) {
+        int index = mix(key) & mask;
+        while (keys[index] != 0L) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+}
@@ -0,0 +1,294 @@
+package com.xuangy.lib.utils;
+
+import com.xuangy.lib.log.Log;
+import com.xuangy.lib.log.LogSinks;
+import lombok.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @description: 哈希时间轮, 以单个工作线程驱动大量定时任务
+ *               定时任务先进入无锁队列, 由工作线程在每个 tick 转移到对应的槽位, 到期后在工作线程中执行.
+ *               每个定时任务只占用一个对象的内存, 不会为每个等待者占用线程, 适合十万级以上的延迟任务.
+ *               定时精度为 tickDuration, 到期任务应尽量轻量, 耗时操作请转交给线程池执行.
+ *               停止后未到期的任务全部被取消, 提交时指定的取消回调会被执行, 等待结果的调用方不会永远挂起.
+ * @author: xuanguangyao
+ * @email: wtopps111@gmail.com
+ * @date: 2026/10/18 17:20
+ */
+public class TimerWheel {
+
+    private static final Log log = LogSinks.getLog(TimerWheel.class);
+
+    private static final int STATE_INIT = 0;
+
+    private static final int STATE_STARTED = 1;
+
+    private static final int STATE_STOPPED = 2;
+
+    private final long tickNanos;
+
+    private final int mask;
+
+    private final Queue<Timeout>[] buckets;
+
+    private final Queue<Timeout> pending = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger state = new AtomicInteger(STATE_INIT);
+
+    private final AtomicLong pendingCount = new AtomicLong();
+
+    private final Thread worker;
+
+    private volatile long startNanos;
+
+    /**
+     * tick 为 1ms, 512 个槽位
+     *
+     * @param name 工作线程名称
+     */
+    public TimerWheel(String name) {
+        this(name, 1, TimeUnit.MILLISECONDS, 512);
+    }
+
+    /**
+     * @param name         工作线程名称
+     * @param tickDuration 每个 tick 的时长, 即定时精度
+     * @param unit         tickDuration 的时间单位
+     * @param wheelSize    槽位数量, 会向上取整为 2 的幂次
+     */
+    public TimerWheel(@NonNull String name, long tickDuration, @NonNull TimeUnit unit, int wheelSize) {
+        if (tickDuration <= 0 || wheelSize <= 0 || wheelSize > (1 << 30)) {
+            throw new IllegalArgumentException("tickDuration and wheelSize must be positive");
+        }
+        int size = 1;
+        while (size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = size - 1;
+        this.buckets = newBuckets(size);
+        this.worker = new Thread(this::work, name);
+        this.worker.setDaemon(true);
+    }
+
+    /**
+     * 提交延迟任务, 首次提交时启动工作线程
+     *
+     * @param task  到期后在工作线程中执行的任务
+     * @param delay 延迟时长, 小于等于 0 时在下一个 tick 执行
+     * @param unit  delay 的时间单位
+     * @return 可用于取消的定时句柄
+     */
+    public Timeout schedule(@NonNull Runnable task, long delay, @NonNull TimeUnit unit) {
+        return schedule(task, null, delay, unit);
+    }
+
+    /**
+     * 提交延迟任务, 首次提交时启动工作线程
+     *
+     * @param task     到期后在工作线程中执行的任务
+     * @param onCancel 任务被取消(包括时间轮停止)时执行的回调, 可以为 null
+     * @param delay    延迟时长, 小于等于 0 时在下一个 tick 执行
+     * @param unit     delay 的时间单位
+     * @return 可用于取消的定时句柄
+     */
+    public Timeout schedule(@NonNull Runnable task, Runnable onCancel, long delay, @NonNull TimeUnit unit) {
+        start();
+        long deadline = System.nanoTime() + Math.max(0L, unit.toNanos(delay)) - startNanos;
+        Timeout timeout = new Timeout(this, task, onCancel, deadline);
+        pendingCount.incrementAndGet();
+        pending.offer(timeout);
+        if (state.get() == STATE_STOPPED) {
+            // 与 stop 并发时工作线程可能已经清理完毕
+            timeout.cancel();
+        }
+        return timeout;
+    }
+
+    /**
+     * @return 尚未到期且未取消的任务数
+     */
+    public long pendingTimeouts() {
+        return pendingCount.get();
+    }
+
+    /**
+     * 停止工作线程, 未到期的任务不再执行, 由工作线程退出前逐个取消并执行取消回调
+     */
+    public void stop() {
+        if (state.getAndSet(STATE_STOPPED) == STATE_STARTED) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void start() {
+        int current = state.get();
+        if (current == STATE_INIT && state.compareAndSet(STATE_INIT, STATE_STARTED)) {
+            startNanos = System.nanoTime();
+            worker.start();
+        } else if (current == STATE_STOPPED) {
+            throw new IllegalStateException("timer wheel already stopped");
+        }
+        while (startNanos == 0L) {
+            Thread.yield();
+        }
+    }
+
+    private void work() {
+        try {
+            loop();
+        } finally {
+            cancelRemaining();
+        }
+    }
+
+    private void loop() {
+        long tick = 0L;
+        while (state.get() == STATE_STARTED) {
+            long deadline = tickNanos * (tick + 1);
+            long sleep;
+            while ((sleep = deadline - (System.nanoTime() - startNanos)) > 0L) {
+                LockSupport.parkNanos(this, sleep);
+                if (state.get() != STATE_STARTED) {
+                    return;
+                }
+            }
+            transferPending(tick);
+            expire(buckets[(int) (tick & mask)], deadline);
+            tick++;
+        }
+    }
+
+    private void cancelRemaining() {
+        for (Queue<Timeout> bucket : buckets) {
+            Timeout timeout;
+            while ((timeout = bucket.poll()) != null) {
+                timeout.cancel();
+            }
+        }
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            timeout.cancel();
+        }
+    }
+
+    private void transferPending(long tick) {
+        Timeout timeout;
+        while ((timeout = pending.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            long calculated = timeout.deadline / tickNanos;
+            timeout.remainingRounds = (calculated - tick) / buckets.length;
+            buckets[(int) (Math.max(calculated, tick) & mask)].offer(timeout);
+        }
+    }
+
+    private void expire(Queue<Timeout> bucket, long deadline) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0 && timeout.deadline <= deadline) {
+                iterator.remove();
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Queue<Timeout>[] newBuckets(int size) {
+        Queue<Timeout>[] buckets = (Queue<Timeout>[]) new Queue<?>[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        return buckets;
+    }
+
+    /**
+     * 定时句柄
+     */
+    public static final class Timeout {
+
+        private static final int ST_WAITING = 0;
+
+        private static final int ST_CANCELLED = 1;
+
+        private static final int ST_EXPIRED = 2;
+
+        private final TimerWheel wheel;
+
+        private final Runnable task;
+
+        private final Runnable onCancel;
+
+        /**
+         * 相对于时间轮启动时刻的到期时间
+         */
+        private final long deadline;
+
+        private final AtomicInteger state = new AtomicInteger(ST_WAITING);
+
+        /**
+         * 剩余圈数, 仅在工作线程中访问
+         */
+        private long remainingRounds;
+
+        private Timeout(TimerWheel wheel, Runnable task, Runnable onCancel, long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.onCancel = onCancel;
+            this.deadline = deadline;
+        }
+
+        /**
+         * @return true: 取消成功, false: 任务已执行或已取消
+         */
+        public boolean cancel() {
+            if (!state.compareAndSet(ST_WAITING, ST_CANCELLED)) {
+                return false;
+            }
+            wheel.pendingCount.decrementAndGet();
+            if (onCancel != null) {
+                try {
+                    onCancel.run();
+                } catch (Throwable e) {
+                    log.warn("timer wheel cancel callback error", e);
+                }
+            }
+            return true;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == ST_CANCELLED;
+        }
+
+        public boolean isExpired() {
+            return state.get() == ST_EXPIRED;
+        }
+
+        private void expire() {
+            if (!state.compareAndSet(ST_WAITING, ST_EXPIRED)) {
+                return;
+            }
+            wheel.pendingCount.decrementAndGet();
+            try {
+                task.run();
+            } catch (Throwable e) {
+                log.warn("timer wheel task error", e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,149 @@
+package com.xuangy.lib.exception.handler;
+
+import com.xuangy.lib.exception.handler.ThrowsHandler.PromiseForSupplier;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class BatchLoaderTest {
+
+    private final List<List<Integer>> calls = Collections.synchronizedList(new ArrayList<>());
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @After
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    private Map<Integer, String> load(List<Integer> keys) {
+        calls.add(new ArrayList<>(keys));
+        Map<Integer, String> values = new HashMap<>();
+        for (Integer key : keys) {
+            if (key >= 0) {
+                values.put(key, "v" + key);
+            }
+        }
+        return values;
+    }
+
+    @Test
+    public void fullBatchIsDispatchedWithoutWaitingForTimer() throws Exception {
+        BatchLoader<Integer, String, RuntimeException> loader = new BatchLoader<>(this::load, 3, 1, TimeUnit.HOURS);
+        List<CompletableFuture<PromiseForSupplier<String, RuntimeException>>> futures = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            futures.add(loader.submit(i));
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals("v" + i, futures.get(i).get(5, TimeUnit.SECONDS).value());
+        }
+        assertEquals(1, calls.size());
+        assertEquals(3, calls.get(0).size());
+        loader.close();
+    }
+
+    @Test
+    public void partialBatchIsDispatchedByTimer() throws Exception {
+        BatchLoader<Integer, String, RuntimeException> loader = new BatchLoader<>(this::load, 100, 20, TimeUnit.MILLISECONDS);
+        CompletableFuture<PromiseForSupplier<String, RuntimeException>> first = loader.submit(1);
+        CompletableFuture<PromiseForSupplier<String, RuntimeException>> second = loader.submit(2);
+        assertEquals("v1", first.get(5, TimeUnit.SECONDS).value());
+        assertEquals("v2", second.get(5, TimeUnit.SECONDS).value());
+        assertEquals(1, loader.getBatchCount());
+        assertEquals(2, loader.getKeyCount());
+        loader.close();
+    }
+
+    @Test
+    public void eachCallerGetsItsOwnPromise() throws Exception {
+        BatchLoader<Integer, String, RuntimeException> loader = new BatchLoader<>(this::load, 100, 1, TimeUnit.HOURS);
+        CompletableFuture<PromiseForSupplier<String, RuntimeException>> a = loader.submit(7);
+        CompletableFuture<PromiseForSupplier<String, RuntimeException>> b = loader.submit(7);
+        CompletableFuture<PromiseForSupplier<String, RuntimeException>> missing = loader.submit(-1);
+        loader.flush();
+        assertEquals("v7", a.get(5, TimeUnit.SECONDS).value());
+        assertEquals("v7", b.get(5, TimeUnit.SECONDS).value());
+        assertFalse(a.get() == b.get());
+        assertNull(missing.get(5, TimeUnit.SECONDS).value());
+        assertNull(missing.get().getException());
+        // 重复 key 只进入一次批量调用
+        assertEquals(1, calls.size());
+        assertEquals(2, calls.get(0).size());
+        loader.close();
+    }
+
+    @Test
+    public void batchFailureIsFannedOutToEveryKey() throws Exception {
+        IOException failure = new IOException("remote down");
+        BatchLoader<Integer, String, IOException> loader = new BatchLoader<>(keys -> {
+            throw failure;
+        }, 100, 1, TimeUnit.HOURS);
+        List<CompletableFuture<PromiseForSupplier<String, IOException>>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(loader.submit(i));
+        }
+        loader.flush();
+        for (CompletableFuture<PromiseForSupplier<String, IOException>> future : futures) {
+            PromiseForSupplier<String, IOException> promise = future.get(5, TimeUnit.SECONDS);
+            assertSame(failure, promise.getException());
+            assertNull(promise.value());
+        }
+        loader.close();
+    }
+
+    @Test
+    public void submitAfterCloseFailsImmediately() throws Exception {
+        BatchLoader<Integer, String, RuntimeException> loader = new BatchLoader<>(this::load, 100, 1, TimeUnit.HOURS);
+        CompletableFuture<PromiseForSupplier<String, RuntimeException>> before = loader.submit(1);
+        loader.close();
+        assertEquals("v1", before.get(5, TimeUnit.SECONDS).value());
+        CompletableFuture<PromiseForSupplier<String, RuntimeException>> after = loader.submit(2);
+        assertTrue(after.isDone());
+        try {
+            after.get();
+            fail("expected failure");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IllegalStateException);
+        }
+    }
+
+    @Test
+    public void rejectedDispatchCompletesFutureExceptionally() throws Exception {
+        BatchLoader<Integer, String, RuntimeException> loader = new BatchLoader<>(this::load, 2, 1, TimeUnit.HOURS, scheduler,
+                task -> {
+                    throw new RejectedExecutionException("saturated");
+                });
+        CompletableFuture<PromiseForSupplier<String, RuntimeException>> first = loader.submit(1);
+        CompletableFuture<PromiseForSupplier<String, RuntimeException>> second = loader.submit(2);
+        for (CompletableFuture<PromiseForSupplier<String, RuntimeException>> future : Arrays.asList(first, second)) {
+            assertTrue(future.isDone());
+            try {
+                future.get();
+                fail("expected rejection");
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause() instanceof RejectedExecutionException);
+            }
+        }
+        assertTrue(calls.isEmpty());
+    }
+}
@@ -0,0 +1,102 @@
+package com.xuangy.lib.exception.handler;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class BoundedStackTraceTest {
+
+    @After
+    public void restoreDefaults() {
+        StackCapture.setReprintInterval(10, TimeUnit.MINUTES);
+        StackCapture.clearInterned();
+    }
+
+    @Test
+    public void repeatedTraceIsReprintedAfterInterval() throws InterruptedException {
+        StackCapture.clearInterned();
+        StackCapture.setReprintInterval(50, TimeUnit.MILLISECONDS);
+        IllegalStateException error = new IllegalStateException("boom");
+
+        String first = render(error);
+        assertTrue(first, first.contains("\tat "));
+        String second = render(error);
+        assertFalse(second, second.contains("\tat "));
+        assertTrue(second, second.contains("seen 2 times"));
+
+        Thread.sleep(100L);
+        String third = render(error);
+        assertTrue(third, third.contains("\tat "));
+        assertTrue(third, third.contains("seen 3 times"));
+        assertFalse(render(error).contains("\tat "));
+    }
+
+    @Test
+    public void fullTableEvictsExpiredTraces() throws InterruptedException {
+        StackCapture.clearInterned();
+        StackCapture.setReprintInterval(50, TimeUnit.MILLISECONDS);
+        for (long fingerprint = 1L; StackCapture.internedCount() < 4096; fingerprint++) {
+            StackCapture.intern(fingerprint);
+        }
+        Thread.sleep(100L);
+        assertNotNull(StackCapture.intern(-1L));
+        assertEquals(1, StackCapture.internedCount());
+    }
+
+    @Test
+    public void suppressedExceptionsAreRenderedIndented() {
+        StackCapture.clearInterned();
+        IllegalStateException error = new IllegalStateException("outer");
+        IOException closeFailure = new IOException("close failed", new IllegalArgumentException("inner cause"));
+        error.addSuppressed(closeFailure);
+        String rendered = render(error);
+        assertTrue(rendered, rendered.contains(System.lineSeparator() + "\tSuppressed: java.io.IOException: close failed"));
+        assertTrue(rendered, rendered.contains(System.lineSeparator() + "\t\tat "));
+        assertTrue(rendered, rendered.contains(System.lineSeparator() + "\tCaused by: java.lang.IllegalArgumentException: inner cause"));
+    }
+
+    @Test
+    public void suppressedExceptionsAreBounded() {
+        StackCapture.clearInterned();
+        IllegalStateException error = new IllegalStateException("outer");
+        for (int i = 0; i < 10; i++) {
+            error.addSuppressed(new IOException("close " + i));
+        }
+        String rendered = render(error);
+        assertEquals(rendered, 4, rendered.split("Suppressed: ", -1).length - 1);
+        assertTrue(rendered, rendered.contains("... 6 suppressed omitted"));
+    }
+
+    @Test
+    public void suppressedExceptionsAreFingerprinted() {
+        StackCapture.clearInterned();
+        // 三次在同一行创建, 堆栈相同, 只有第一次没有 suppressed 异常
+        String[] rendered = new String[3];
+        for (int i = 0; i < rendered.length; i++) {
+            rendered[i] = render(newError(i > 0));
+        }
+        assertTrue(rendered[0], rendered[0].contains("\tat "));
+        assertFalse(rendered[1], rendered[1].contains("seen 2 times"));
+        assertTrue(rendered[1], rendered[1].contains("Suppressed: "));
+        assertTrue(rendered[2], rendered[2].contains("seen 2 times"));
+    }
+
+    private static IllegalStateException newError(boolean withSuppressed) {
+        IllegalStateException error = new IllegalStateException("boom");
+        if (withSuppressed) {
+            error.addSuppressed(new IOException("close failed"));
+        }
+        return error;
+    }
+
+    private static String render(Throwable throwable) {
+        return new BoundedStackTrace(throwable, 4, new String[0]).toString();
+    }
+}
@@ -0,0 +1,104 @@
+package com.xuangy.lib.exception.handler;
+
+import org.junit.Test;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CatchTableTest {
+
+    private interface Retryable {
+    }
+
+    private interface Transient extends Retryable {
+    }
+
+    private static class RetryableIOException extends IOException implements Transient {
+    }
+
+    private static class SubRetryableIOException extends RetryableIOException {
+    }
+
+    private final List<String> hits = new ArrayList<>();
+
+    @Test
+    public void mostSpecificSuperclassWins() {
+        CatchTable table = CatchTable.builder()
+                .on(Exception.class, e -> hits.add("exception"))
+                .on(IOException.class, e -> hits.add("io"))
+                .on(FileNotFoundException.class, e -> hits.add("not-found"))
+                .build();
+        table.dispatch(new FileNotFoundException());
+        table.dispatch(new SubRetryableIOException());
+        table.dispatch(new IllegalStateException());
+        assertEquals(Arrays.asList("not-found", "io", "exception"), hits);
+    }
+
+    @Test
+    public void superclassChainIsSearchedBeforeInterfaces() {
+        CatchTable table = CatchTable.builder()
+                .onInterface(Retryable.class, e -> hits.add("retryable"))
+                .on(Exception.class, e -> hits.add("exception"))
+                .build();
+        // Exception 在父类链上, 优先于异常实现的接口
+        table.dispatch(new RetryableIOException());
+        assertEquals(Collections.singletonList("exception"), hits);
+    }
+
+    @Test
+    public void interfacesAreFoundThroughSuperclassesAndSuperinterfaces() {
+        CatchTable table = CatchTable.builder()
+                .onInterface(Retryable.class, e -> hits.add("retryable"))
+                .otherwise(e -> hits.add("otherwise"))
+                .build();
+        table.dispatch(new SubRetryableIOException());
+        table.dispatch(new IOException());
+        assertEquals(Arrays.asList("retryable", "otherwise"), hits);
+        assertTrue(table.handles(SubRetryableIOException.class));
+    }
+
+    @Test
+    public void unmatchedExceptionIsNotHandledWithoutFallback() {
+        CatchTable table = CatchTable.builder()
+                .on(IOException.class, e -> hits.add("io"))
+                .build();
+        assertFalse(table.dispatch(new IllegalStateException()));
+        assertFalse(table.dispatch(null));
+        assertFalse(table.handles(RuntimeException.class));
+        assertTrue(hits.isEmpty());
+    }
+
+    @Test
+    public void resolutionIsCachedPerTable() {
+        CatchTable io = CatchTable.builder().on(IOException.class, e -> hits.add("io")).build();
+        CatchTable any = CatchTable.builder().on(Exception.class, e -> hits.add("any")).build();
+        for (int i = 0; i < 2; i++) {
+            io.dispatch(new FileNotFoundException());
+            any.dispatch(new FileNotFoundException());
+        }
+        assertEquals(Arrays.asList("io", "any", "io", "any"), hits);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void onInterfaceRejectsClasses() {
+        CatchTable.builder().onInterface(IOException.class, e -> {
+        });
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void duplicateTypeIsRejected() {
+        CatchTable.builder()
+                .on(IOException.class, e -> {
+                })
+                .on(IOException.class, e -> {
+                });
+    }
+}
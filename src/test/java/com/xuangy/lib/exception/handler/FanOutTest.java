@@ -0,0 +1,41 @@
+package com.xuangy.lib.exception.handler;
+
+import com.xuangy.lib.exception.handler.common.SupplierWithThrow;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FanOutTest {
+
+    @Test
+    public void allOfEmptyListSucceeds() {
+        FanOut.Result<String> result = FanOut.all(Collections.<SupplierWithThrow<String, IOException>>emptyList());
+        assertNull(result.getException());
+        assertEquals(Collections.emptyList(), result.value());
+        assertEquals(0, result.successCount());
+    }
+
+    @Test
+    public void timeoutIsReportedAsAggregationFailure() {
+        List<SupplierWithThrow<String, Exception>> tasks = Arrays.asList(() -> "fast", () -> {
+            Thread.sleep(5_000L);
+            return "slow";
+        });
+        AtomicReference<Exception> caught = new AtomicReference<>();
+        FanOut.all(tasks, ForkJoinPool.commonPool(), 50, TimeUnit.MILLISECONDS)
+                .catCh(IOException.class, e -> caught.set(e))
+                .catchAll(caught::set);
+        assertTrue(String.valueOf(caught.get()), caught.get() instanceof TimeoutException);
+    }
+}
@@ -0,0 +1,131 @@
+package com.xuangy.lib.exception.handler;
+
+import com.xuangy.lib.exception.handler.ThrowsHandler.PromiseForSupplier;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final ThreadPoolExecutor pool = (ThreadPoolExecutor) Executors.newFixedThreadPool(CALLERS);
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @After
+    public void tearDown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 所有调用者都在 supplier 执行期间发起调用, supplier 在 release 后才返回
+     */
+    private <R> List<Future<PromiseForSupplier<R, Exception>>> callConcurrently(
+            SingleFlight<String, R, Exception> flight, CountDownLatch release, R value, Exception failure) throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        List<Future<PromiseForSupplier<R, Exception>>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(pool.submit(() -> flight.sup("key", () -> {
+                calls.incrementAndGet();
+                started.countDown();
+                release.await();
+                if (failure != null) {
+                    throw failure;
+                }
+                return value;
+            })));
+        }
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        // 等待其余调用者进入在途调用
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (pool.getActiveCount() < CALLERS && System.nanoTime() - deadline < 0) {
+            Thread.sleep(5L);
+        }
+        Thread.sleep(50L);
+        release.countDown();
+        return results;
+    }
+
+    @Test
+    public void concurrentCallersShareOneExecution() throws Exception {
+        SingleFlight<String, String, Exception> flight = new SingleFlight<>();
+        List<Future<PromiseForSupplier<String, Exception>>> results = callConcurrently(flight, new CountDownLatch(1), "value", null);
+        PromiseForSupplier<String, Exception> first = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<PromiseForSupplier<String, Exception>> result : results) {
+            assertSame(first, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals("value", first.value());
+        assertEquals(1, calls.get());
+        assertEquals(0, flight.inFlightCount());
+
+        // 在途调用结束后重新执行
+        assertEquals("again", flight.sup("key", () -> "again").value());
+    }
+
+    @Test
+    public void exceptionIsSharedByAllWaiters() throws Exception {
+        SingleFlight<String, String, Exception> flight = new SingleFlight<>();
+        IOException failure = new IOException("remote down");
+        List<Future<PromiseForSupplier<String, Exception>>> results = callConcurrently(flight, new CountDownLatch(1), null, failure);
+        for (Future<PromiseForSupplier<String, Exception>> result : results) {
+            PromiseForSupplier<String, Exception> promise = result.get(5, TimeUnit.SECONDS);
+            assertSame(failure, promise.getException());
+            assertNull(promise.value());
+        }
+        assertEquals(1, calls.get());
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    public void errorIsRethrownToAllWaiters() throws Exception {
+        SingleFlight<String, String, Exception> flight = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<PromiseForSupplier<String, Exception>> owner = pool.submit(() -> flight.sup("key", () -> {
+            started.countDown();
+            release.await();
+            throw new AssertionError("boom");
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<PromiseForSupplier<String, Exception>> waiter = pool.submit(() -> flight.sup("key", () -> "never"));
+        Thread.sleep(50L);
+        release.countDown();
+        for (Future<PromiseForSupplier<String, Exception>> result : Arrays.asList(owner, waiter)) {
+            try {
+                result.get(5, TimeUnit.SECONDS);
+                fail("expected error");
+            } catch (ExecutionException e) {
+                assertTrue(String.valueOf(e.getCause()), e.getCause() instanceof AssertionError);
+            }
+        }
+        assertEquals(0, flight.inFlightCount());
+    }
+
+    @Test
+    public void reentrantCallOnSameKeyFailsInsteadOfDeadlocking() {
+        SingleFlight<String, String, Exception> flight = new SingleFlight<>();
+        PromiseForSupplier<String, Exception> promise = flight.sup("key", () -> flight.sup("key", () -> "inner").value());
+        assertTrue(String.valueOf(promise.getException()), promise.getException() instanceof IllegalStateException);
+        assertEquals(0, flight.inFlightCount());
+        // 不同 key 的嵌套调用不受影响
+        assertEquals("inner", flight.sup("outer", () -> flight.sup("inner", () -> "inner").value()).value());
+    }
+}
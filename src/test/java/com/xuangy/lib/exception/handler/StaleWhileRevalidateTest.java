@@ -0,0 +1,145 @@
+package com.xuangy.lib.exception.handler;
+
+import com.xuangy.lib.exception.handler.common.SupplierWithThrow;
+import com.xuangy.lib.ratelimit.simulation.VirtualClock;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StaleWhileRevalidateTest {
+
+    private final VirtualClock clock = new VirtualClock();
+
+    private final List<Runnable> refreshes = new ArrayList<>();
+
+    private final StaleWhileRevalidate cache = new StaleWhileRevalidate(refreshes::add, 100, TimeUnit.MILLISECONDS, clock);
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private volatile boolean failing;
+
+    private final SupplierWithThrow<Integer, IOException> supplier = () -> {
+        int call = calls.incrementAndGet();
+        if (failing) {
+            throw new IOException("remote down");
+        }
+        return call;
+    };
+
+    private Integer get() {
+        return cache.get("config", supplier, 1, TimeUnit.SECONDS, -1);
+    }
+
+    private void runRefreshes() {
+        List<Runnable> pending = new ArrayList<>(refreshes);
+        refreshes.clear();
+        pending.forEach(Runnable::run);
+    }
+
+    @Test
+    public void freshValueIsServedWithoutCallingSupplier() {
+        assertEquals(Integer.valueOf(1), get());
+        clock.advance(999, TimeUnit.MILLISECONDS);
+        assertEquals(Integer.valueOf(1), get());
+        assertEquals(1, calls.get());
+        assertTrue(refreshes.isEmpty());
+        assertEquals(999L, cache.ageMillis("config"));
+    }
+
+    @Test
+    public void staleValueIsServedWhileRefreshingInBackground() {
+        get();
+        clock.advance(2, TimeUnit.SECONDS);
+        assertEquals(Integer.valueOf(1), get());
+        // 刷新在途时不再提交第二个刷新
+        assertEquals(Integer.valueOf(1), get());
+        assertEquals(1, refreshes.size());
+        runRefreshes();
+        assertEquals(Integer.valueOf(2), get());
+        assertEquals(0L, cache.ageMillis("config"));
+    }
+
+    @Test
+    public void refreshFailureKeepsOldValueAndBacksOff() {
+        get();
+        failing = true;
+        clock.advance(2, TimeUnit.SECONDS);
+        assertEquals(Integer.valueOf(1), get());
+        runRefreshes();
+        assertEquals(2, calls.get());
+        assertEquals(Integer.valueOf(1), get());
+        assertTrue("no refresh during backoff", refreshes.isEmpty());
+        clock.advance(100, TimeUnit.MILLISECONDS);
+        assertEquals(Integer.valueOf(1), get());
+        assertEquals(1, refreshes.size());
+    }
+
+    @Test
+    public void coldStartFailureReturnsDefaultAndBacksOff() {
+        failing = true;
+        assertEquals(Integer.valueOf(-1), get());
+        assertEquals(Integer.valueOf(-1), get());
+        assertEquals(1, calls.get());
+        assertEquals(-1L, cache.ageMillis("config"));
+        clock.advance(100, TimeUnit.MILLISECONDS);
+        failing = false;
+        assertEquals(Integer.valueOf(2), get());
+    }
+
+    @Test
+    public void concurrentColdStartsShareOneLoad() throws Exception {
+        StaleWhileRevalidate shared = new StaleWhileRevalidate(Runnable::run);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        SupplierWithThrow<Integer, InterruptedException> slow = () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            release.await();
+            return 42;
+        };
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> shared.get("slow", slow, 1, TimeUnit.MINUTES, -1)));
+            }
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Thread.sleep(50L);
+            release.countDown();
+            for (Future<Integer> result : results) {
+                assertEquals(Integer.valueOf(42), result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, calls.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    public void reusingNameWithAnotherSupplierIsRejected() {
+        get();
+        SupplierWithThrow<String, IOException> other = () -> "text";
+        try {
+            cache.get("config", other, 1, TimeUnit.SECONDS, "");
+            fail("expected rejection");
+        } catch (IllegalArgumentException e) {
+            assertFalse(e.getMessage().isEmpty());
+        }
+        cache.invalidate("config");
+        assertEquals("text", cache.get("config", other, 1, TimeUnit.SECONDS, ""));
+    }
+}
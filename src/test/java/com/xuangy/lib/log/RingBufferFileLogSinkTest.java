@@ -0,0 +1,52 @@
+package com.xuangy.lib.log;
+
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RingBufferFileLogSinkTest {
+
+    @Test
+    public void truncatedRecordsAreMarked() throws Exception {
+        Path file = Files.createTempFile("ring-log-test", ".ring");
+        try {
+            RingBufferFileLogSink sink = new RingBufferFileLogSink(file, 4, 64, LogLevel.INFO);
+            sink.log(LogLevel.INFO, "src", "short");
+            char[] longMessage = new char[100];
+            Arrays.fill(longMessage, 'x');
+            sink.log(LogLevel.WARN, "src", new String(longMessage));
+            List<String> lines = RingBufferFileLogSink.read(file);
+            assertEquals(2, lines.size());
+            assertTrue(lines.get(0).endsWith("INFO src - short"));
+            assertFalse(lines.get(0).contains("truncated"));
+            // 槽位 64 字节, 头 20 字节, 截断计数 4 字节, 保留 40 字节内容
+            assertTrue(lines.get(1), lines.get(1).endsWith("...[truncated " + (106 - 40) + " bytes]"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void truncationKeepsMultiByteCharactersWhole() throws Exception {
+        Path file = Files.createTempFile("ring-log-test", ".ring");
+        try {
+            RingBufferFileLogSink sink = new RingBufferFileLogSink(file, 4, 64, LogLevel.INFO);
+            // "src - " 占 6 字节, 之后每个汉字 3 字节, 40 字节的内容在第 12 个汉字中间截断
+            char[] chinese = new char[30];
+            Arrays.fill(chinese, '限');
+            sink.log(LogLevel.INFO, "src", new String(chinese));
+            String line = RingBufferFileLogSink.read(file).get(0);
+            assertFalse(line, line.contains("\uFFFD"));
+            assertTrue(line, line.contains("src - " + new String(chinese, 0, 11) + "...[truncated " + (96 - 39) + " bytes]"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.xuangy.lib.ratelimit;
+
+import com.xuangy.lib.ratelimit.simulation.VirtualClock;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ByteRateLimiterTest {
+
+    private static final long MB = 1024L * 1024L;
+
+    @Test
+    public void throttledStreamHoldsConfiguredRate() throws IOException {
+        VirtualClock clock = new VirtualClock();
+        ByteRateLimiter limiter = new ByteRateLimiter(MB, MB / 10, clock);
+        byte[] block = new byte[64 * 1024];
+        try (OutputStream out = limiter.throttle(new OutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+            }
+        })) {
+            for (int i = 0; i < 10 * MB / block.length; i++) {
+                out.write(block);
+            }
+        }
+        // 10MB 中超出突发量 0.1MB 的部分按 1MB/s 发放, 预取粒度为 16KB
+        double seconds = clock.nanoTime() / 1e9;
+        assertTrue(String.valueOf(seconds), seconds >= 9.85 && seconds <= 9.92);
+        assertEquals(10 * MB, limiter.getAcquiredBytes());
+    }
+
+    @Test
+    public void partialChannelWriteGivesBackUnwrittenCredit() throws IOException {
+        ByteRateLimiter limiter = new ByteRateLimiter(MB, MB, new VirtualClock());
+        WritableByteChannel slow = new WritableByteChannel() {
+            @Override
+            public int write(ByteBuffer src) {
+                int n = Math.min(100, src.remaining());
+                src.position(src.position() + n);
+                return n;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        ThrottledWritableByteChannel channel = new ThrottledWritableByteChannel(slow, limiter, 1024);
+        ByteBuffer buffer = ByteBuffer.allocate(1000);
+        assertEquals(100, channel.write(buffer));
+        assertEquals(100, buffer.position());
+        assertEquals(1000, buffer.limit());
+        assertEquals(1024L, limiter.getAcquiredBytes());
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        // 未写出的部分放回本地额度, 不会重复预取
+        assertEquals(1024L, limiter.getAcquiredBytes());
+        channel.close();
+        assertEquals(1000L, limiter.getAcquiredBytes());
+    }
+
+    @Test
+    public void releaseIsNotBlockedByWaitingTake() throws Exception {
+        ByteRateLimiter limiter = new ByteRateLimiter(1000L, 1000L);
+        ByteCredit credit = new ByteCredit(limiter, 1000);
+        credit.take(1L);
+        CountDownLatch done = new CountDownLatch(1);
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                // 本地额度不足, 需要再等待约 1 秒
+                credit.take(1000L);
+            } catch (Throwable e) {
+                failure.set(e);
+            } finally {
+                done.countDown();
+            }
+        });
+        writer.start();
+        Thread.sleep(100L);
+        long start = System.nanoTime();
+        credit.release();
+        assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(200));
+        writer.interrupt();
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(String.valueOf(failure.get()), failure.get() instanceof InterruptedIOException);
+    }
+}
@@ -0,0 +1,85 @@
+package com.xuangy.lib.ratelimit;
+
+import com.xuangy.lib.ratelimit.simulation.ArrivalTrace;
+import com.xuangy.lib.ratelimit.simulation.Simulation;
+import com.xuangy.lib.ratelimit.simulation.SimulationReport;
+import com.xuangy.lib.ratelimit.simulation.VirtualClock;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class ClusterRateLimiterTest {
+
+    private static final int NODES = 4;
+
+    private static final double GLOBAL_RATE = 1000D;
+
+    private static final long CAPACITY = 1000L;
+
+    private static final long SECONDS = 60L;
+
+    @Test
+    public void nodesSharingOneCoordinatorStayWithinGlobalRate() {
+        VirtualClock clock = new VirtualClock();
+        LocalQuotaCoordinator coordinator = new LocalQuotaCoordinator(GLOBAL_RATE, CAPACITY, clock);
+        Map<String, ClusterRateLimiter> nodes = new HashMap<>();
+        ArrivalTrace[] traces = new ArrivalTrace[NODES];
+        for (int i = 0; i < NODES; i++) {
+            String nodeId = "node-" + i;
+            nodes.put(nodeId, new ClusterRateLimiter(nodeId, coordinator, 10, 200, 1000, 100, 10, TimeUnit.MILLISECONDS, clock));
+            // 每个节点的需求为全局速率的 60%, 合计超出全局配额 1.4 倍
+            traces[i] = ArrivalTrace.poisson(nodeId, GLOBAL_RATE * 0.6, SECONDS, TimeUnit.SECONDS, 42L + i);
+        }
+        SimulationReport report = Simulation.run(ArrivalTrace.merge(traces), clock,
+                (key, permits) -> nodes.get(key).tryAcquire(permits));
+
+        long generated = (long) (GLOBAL_RATE * SECONDS) + CAPACITY;
+        assertTrue(report.toString(), coordinator.leasedPermits() - coordinator.releasedPermits() <= generated);
+        assertTrue(report.toString(), report.getAdmitted() <= generated);
+        // 配额不应被闲置: 过载时放行量接近全局速率
+        assertTrue(report.toString(), report.getAdmitted() >= GLOBAL_RATE * SECONDS * 0.9);
+        for (SimulationReport.KeyStats stats : report.getKeys().values()) {
+            assertTrue(stats.toString(), stats.admittedRatio() > 0.3);
+        }
+    }
+
+    @Test
+    public void idleNodeReturnsExpiredLease() {
+        VirtualClock clock = new VirtualClock();
+        LocalQuotaCoordinator coordinator = new LocalQuotaCoordinator(GLOBAL_RATE, CAPACITY, clock);
+        ClusterRateLimiter node = new ClusterRateLimiter("idle", coordinator, 100, 100, 1000, 100, 10, TimeUnit.MILLISECONDS, clock);
+        assertTrue(node.tryAcquire(1));
+        assertEquals(99L, node.availablePermits());
+        assertEquals(0L, node.releaseExpired());
+
+        clock.advance(1, TimeUnit.SECONDS);
+        assertEquals(99L, node.releaseExpired());
+        assertEquals(0L, node.availablePermits());
+        assertEquals(99L, coordinator.releasedPermits());
+        assertEquals(0L, node.releaseExpired());
+    }
+
+    @Test
+    public void deniedNodeFailsFastDuringBackoff() {
+        VirtualClock clock = new VirtualClock();
+        LocalQuotaCoordinator coordinator = new LocalQuotaCoordinator(GLOBAL_RATE, 10, clock);
+        ClusterRateLimiter node = new ClusterRateLimiter("busy", coordinator, 10, 10, 1000, 100, 10, TimeUnit.MILLISECONDS, clock);
+        for (int i = 0; i < 10; i++) {
+            assertTrue(node.tryAcquire(1));
+        }
+        assertFalse(node.tryAcquire(1));
+        long leases = node.leaseCount();
+        // 退避期内不再向协调者租借
+        assertFalse(node.tryAcquire(1));
+        assertEquals(leases, node.leaseCount());
+        clock.advance(10, TimeUnit.MILLISECONDS);
+        assertTrue(node.tryAcquire(1));
+        assertEquals(leases + 1, node.leaseCount());
+    }
+}
@@ -0,0 +1,106 @@
+package com.xuangy.lib.ratelimit;
+
+import com.xuangy.lib.utils.TimerWheel;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class DebouncerTest {
+
+    private final TimerWheel timer = new TimerWheel("debouncer-test", 1, TimeUnit.MILLISECONDS, 64);
+
+    private final List<Integer> runs = new CopyOnWriteArrayList<>();
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    private Debouncer<String> debouncer(Debouncer.Mode mode, long wait, long maxWait) {
+        return new Debouncer<>(mode, wait, maxWait, TimeUnit.MILLISECONDS, timer, Runnable::run);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() - deadline < 0) {
+            Thread.sleep(5L);
+        }
+    }
+
+    @Test
+    public void trailingCoalescesBurstIntoLastTask() throws InterruptedException {
+        Debouncer<String> debouncer = debouncer(Debouncer.Mode.TRAILING, 50, 0);
+        for (int i = 0; i < 5; i++) {
+            final int n = i;
+            debouncer.trigger("k", () -> runs.add(n));
+        }
+        awaitCondition(() -> !runs.isEmpty());
+        Thread.sleep(100L);
+        assertEquals(Collections.singletonList(4), runs);
+        assertEquals(5L, debouncer.getTriggeredCount());
+        assertEquals(1L, debouncer.getExecutedCount());
+        assertEquals(0, debouncer.pendingKeys());
+    }
+
+    @Test
+    public void leadingRunsFirstTriggerAndDropsTheRest() throws InterruptedException {
+        Debouncer<String> debouncer = debouncer(Debouncer.Mode.LEADING, 200, 0);
+        for (int i = 0; i < 5; i++) {
+            final int n = i;
+            debouncer.trigger("k", () -> runs.add(n));
+        }
+        assertEquals(Collections.singletonList(0), runs);
+        awaitCondition(() -> debouncer.pendingKeys() == 0);
+        assertEquals(Collections.singletonList(0), runs);
+        assertEquals(1L, debouncer.getExecutedCount());
+    }
+
+    @Test
+    public void maxWaitForcesFireUnderContinuousTriggers() throws InterruptedException {
+        Debouncer<String> debouncer = debouncer(Debouncer.Mode.TRAILING, 50, 150);
+        long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(700);
+        int i = 0;
+        while (System.nanoTime() - end < 0) {
+            final int n = i++;
+            debouncer.trigger("k", () -> runs.add(n));
+            Thread.sleep(10L);
+        }
+        // 触发间隔始终小于 wait, 只有 maxWait 能让任务在触发期间执行
+        assertTrue(runs.toString(), runs.size() >= 2);
+        awaitCondition(() -> debouncer.pendingKeys() == 0);
+        assertEquals(Integer.valueOf(i - 1), runs.get(runs.size() - 1));
+    }
+
+    @Test
+    public void cancelDropsPendingTrigger() throws InterruptedException {
+        Debouncer<String> debouncer = debouncer(Debouncer.Mode.TRAILING, 50, 0);
+        debouncer.trigger("k", () -> runs.add(1));
+        assertTrue(debouncer.cancel("k"));
+        assertFalse(debouncer.cancel("k"));
+        Thread.sleep(150L);
+        assertTrue(runs.isEmpty());
+        assertEquals(0L, debouncer.getExecutedCount());
+        assertEquals(0, debouncer.pendingKeys());
+    }
+
+    @Test
+    public void rejectedTaskIsNotCountedAsExecuted() {
+        Debouncer<String> debouncer = new Debouncer<>(Debouncer.Mode.LEADING, 50, 0, TimeUnit.MILLISECONDS, timer, task -> {
+            throw new RejectedExecutionException("saturated");
+        });
+        debouncer.trigger("k", () -> runs.add(1));
+        assertEquals(0L, debouncer.getExecutedCount());
+        assertEquals(1L, debouncer.getRejectedCount());
+        assertTrue(runs.isEmpty());
+    }
+}
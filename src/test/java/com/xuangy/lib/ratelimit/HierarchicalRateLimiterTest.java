@@ -0,0 +1,41 @@
+package com.xuangy.lib.ratelimit;
+
+import com.xuangy.lib.ratelimit.HierarchicalRateLimiter.Quota;
+import com.xuangy.lib.ratelimit.simulation.VirtualClock;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HierarchicalRateLimiterTest {
+
+    @Test
+    public void overLimitUserDoesNotConsumeGlobalQuota() {
+        VirtualClock clock = new VirtualClock();
+        HierarchicalRateLimiter limiter = new HierarchicalRateLimiter(Quota.of(1, 3), Quota.of(1, 3), Quota.of(1, 1), clock);
+        assertTrue(limiter.tryAcquire("t", "hot"));
+        for (int i = 0; i < 100; i++) {
+            assertFalse(limiter.tryAcquire("t", "hot"));
+        }
+        assertTrue(limiter.tryAcquire("t", "a"));
+        assertTrue(limiter.tryAcquire("t", "b"));
+        assertFalse(limiter.tryAcquire("t", "c"));
+    }
+
+    @Test
+    public void evictedBucketsAreRecreated() {
+        VirtualClock clock = new VirtualClock();
+        HierarchicalRateLimiter limiter = new HierarchicalRateLimiter(Quota.of(100, 100), Quota.of(100, 100), Quota.of(1, 1), clock);
+        assertTrue(limiter.tryAcquire("t", "u"));
+        assertEquals(0, limiter.evictIdle());
+        clock.advance(2, TimeUnit.SECONDS);
+        assertEquals(2, limiter.evictIdle());
+        assertEquals(0, limiter.tenantCount());
+        assertTrue(limiter.tryAcquire("t", "u"));
+        assertFalse(limiter.tryAcquire("t", "u"));
+        assertEquals(1L, limiter.userCount());
+    }
+}
@@ -0,0 +1,100 @@
+package com.xuangy.lib.ratelimit;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LoadShedderTest {
+
+    /**
+     * 新生代在 GC 后接近满是常态, 空闲的 JVM 不应被判定为堆压力过高
+     */
+    @Test
+    public void idleJvmReportsLowHeapPressure() {
+        // 少量存活对象 + 大量短命对象, 触发若干次 young GC, 使 survivor 区在 GC 后被填满
+        List<byte[]> live = new ArrayList<>();
+        long sink = 0L;
+        for (int i = 0; i < 200_000; i++) {
+            byte[] garbage = new byte[1024];
+            sink += garbage.length;
+            if (i % 20 == 0) {
+                live.add(new byte[1024]);
+            }
+        }
+        assertTrue(sink > 0L && !live.isEmpty());
+        LoadShedder shedder = new LoadShedder(1, TimeUnit.SECONDS).cpuThreshold(1D);
+        shedder.sample();
+        LoadShedder.Signals signals = shedder.signals();
+        assertTrue("heap after gc: " + signals.getHeapAfterGcRatio(), signals.getHeapAfterGcRatio() < 0.5D);
+        assertEquals(0, shedder.shedLevel());
+        assertTrue(shedder.tryAdmit(LoadShedder.Priority.BACKGROUND));
+    }
+
+    /**
+     * 拒绝等级上升立即生效, 下降需要连续 stepDownSamples 次采样都低于当前等级
+     */
+    @Test
+    public void stepDownRequiresConsecutiveLowSamples() throws InterruptedException {
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>());
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            pool.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            // 只保留队列深度信号
+            LoadShedder shedder = new LoadShedder(1, TimeUnit.SECONDS)
+                    .gcTimeThreshold(1D)
+                    .heapThreshold(1D)
+                    .cpuThreshold(1D)
+                    .queueThreshold("pool", pool, 10)
+                    .stepDownSamples(3);
+            fill(pool, 20);
+            shedder.sample();
+            assertEquals(4, shedder.shedLevel());
+
+            pool.getQueue().clear();
+            shedder.sample();
+            shedder.sample();
+            assertEquals(4, shedder.shedLevel());
+            // 一次高压采样打断连续计数
+            fill(pool, 20);
+            shedder.sample();
+            fill(pool, 15);
+            shedder.sample();
+            pool.getQueue().clear();
+            shedder.sample();
+            assertEquals(4, shedder.shedLevel());
+            assertFalse(shedder.tryAdmit(LoadShedder.Priority.HIGH));
+
+            // 连续 3 次低于当前等级, 下降到其中的最高等级(队列深度 15 对应压力 0.5)
+            shedder.sample();
+            assertEquals(2, shedder.shedLevel());
+            assertTrue(shedder.tryAdmit(LoadShedder.Priority.HIGH));
+            assertFalse(shedder.tryAdmit(LoadShedder.Priority.LOW));
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+    }
+
+    private static void fill(ThreadPoolExecutor pool, int depth) {
+        pool.getQueue().clear();
+        for (int i = 0; i < depth; i++) {
+            pool.execute(() -> {
+            });
+        }
+    }
+}
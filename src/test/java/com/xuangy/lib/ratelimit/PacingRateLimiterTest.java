@@ -0,0 +1,72 @@
+package com.xuangy.lib.ratelimit;
+
+import com.xuangy.lib.exception.handler.ThrowsHandler.PromiseForRunnable;
+import com.xuangy.lib.ratelimit.simulation.VirtualClock;
+import com.xuangy.lib.utils.TimerWheel;
+import org.junit.Test;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PacingRateLimiterTest {
+
+    @Test
+    public void interruptedAcquireThrows() {
+        PacingRateLimiter limiter = new PacingRateLimiter(1);
+        try {
+            limiter.acquire(1);
+            Thread.currentThread().interrupt();
+            limiter.acquire(1);
+            fail("expected InterruptedException");
+        } catch (InterruptedException expected) {
+            // 中断后立即返回, 不会在 parkNanos 上空转
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void submitRejectsVirtualTimeSource() {
+        new PacingRateLimiter(1, 1, 0, TimeUnit.SECONDS, new VirtualClock()).submit(() -> {
+        });
+    }
+
+    @Test
+    public void stoppedTimerCancelsSubmittedTasks() throws Exception {
+        TimerWheel timer = new TimerWheel("pacing-test-timer");
+        PacingRateLimiter limiter = new PacingRateLimiter(1, 1, 0, TimeUnit.SECONDS, timer, ForkJoinPool.commonPool());
+        limiter.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+        CompletableFuture<PromiseForRunnable<Exception>> queued = limiter.submit(() -> {
+        });
+        timer.stop();
+        try {
+            queued.get(5, TimeUnit.SECONDS);
+            fail("expected cancellation");
+        } catch (CancellationException expected) {
+            assertTrue(queued.isCancelled());
+        }
+    }
+
+    @Test
+    public void cancelledSubmitReturnsItsReservation() throws Exception {
+        TimerWheel timer = new TimerWheel("pacing-test-timer");
+        PacingRateLimiter limiter = new PacingRateLimiter(10, 10, 0, TimeUnit.SECONDS, timer, ForkJoinPool.commonPool());
+        limiter.submit(() -> {
+        }).get(5, TimeUnit.SECONDS);
+        CompletableFuture<PromiseForRunnable<Exception>> queued = limiter.submit(() -> {
+        });
+        timer.stop();
+        try {
+            queued.get(5, TimeUnit.SECONDS);
+            fail("expected cancellation");
+        } catch (CancellationException expected) {
+            assertTrue(queued.isCancelled());
+        }
+        // 取消的任务归还了第二个 100ms 的许可时间, 下一个许可在 100ms 内即可轮到
+        assertTrue(limiter.tryAcquire(1, 150, TimeUnit.MILLISECONDS));
+    }
+}
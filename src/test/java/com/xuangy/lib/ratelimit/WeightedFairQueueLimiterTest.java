@@ -0,0 +1,81 @@
+package com.xuangy.lib.ratelimit;
+
+import com.xuangy.lib.utils.TimerWheel;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class WeightedFairQueueLimiterTest {
+
+    private final TimerWheel timer = new TimerWheel("fair-queue-test-timer");
+
+    @After
+    public void tearDown() {
+        timer.stop();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyQueueIsRejected() {
+        new WeightedFairQueueLimiter(1, Runnable::run).registerClass("a", 1, 0);
+    }
+
+    @Test
+    public void rejectedTaskIsRequeuedAndRunLater() {
+        List<String> ran = new ArrayList<>();
+        boolean[] saturated = {true};
+        Executor executor = command -> {
+            if (saturated[0]) {
+                throw new RejectedExecutionException("saturated");
+            }
+            command.run();
+        };
+        // 重试间隔足够长, 只由下一次提交触发重新调度
+        WeightedFairQueueLimiter limiter = new WeightedFairQueueLimiter(1, executor, timer, 1, TimeUnit.HOURS)
+                .registerClass("a", 1, 2);
+        assertTrue(limiter.submit("a", () -> ran.add("first")));
+        assertEquals(0, ran.size());
+        assertEquals(1, limiter.stats("a").getQueueSize());
+        assertEquals(1, limiter.availableCapacity());
+
+        saturated[0] = false;
+        assertTrue(limiter.submit("a", () -> ran.add("second")));
+        assertEquals(2, ran.size());
+        assertEquals("first", ran.get(0));
+        assertEquals(2L, limiter.stats("a").getAdmitted());
+        assertEquals(0, limiter.stats("a").getQueueSize());
+    }
+
+    @Test
+    public void rejectedTaskIsRetriedByTimerWithoutNewTraffic() throws InterruptedException {
+        AtomicInteger rejections = new AtomicInteger(3);
+        Executor executor = command -> {
+            if (rejections.getAndDecrement() > 0) {
+                throw new RejectedExecutionException("saturated");
+            }
+            command.run();
+        };
+        WeightedFairQueueLimiter limiter = new WeightedFairQueueLimiter(1, executor, timer, 10, TimeUnit.MILLISECONDS)
+                .registerClass("a", 1, 1);
+        CountDownLatch ran = new CountDownLatch(1);
+        assertTrue(limiter.submit("a", ran::countDown));
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        // 任务在时间轮线程中同步执行, 计数在执行返回后更新
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (limiter.stats("a").getAdmitted() == 0L && System.nanoTime() - deadline < 0) {
+            Thread.sleep(1L);
+        }
+        assertEquals(1L, limiter.stats("a").getAdmitted());
+        assertEquals(0, limiter.stats("a").getQueueSize());
+        assertEquals(1, limiter.availableCapacity());
+    }
+}
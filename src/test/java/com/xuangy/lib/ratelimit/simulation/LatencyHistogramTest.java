@@ -0,0 +1,56 @@
+package com.xuangy.lib.ratelimit.simulation;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void percentilesStayWithinRelativeErrorBound() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        SplittableRandom random = new SplittableRandom(42L);
+        long[] values = new long[100_000];
+        for (int i = 0; i < values.length; i++) {
+            // 对数均匀分布在 [1us, 1s) 之间
+            values[i] = (long) Math.pow(10D, 3D + 6D * random.nextDouble());
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (double percentile : new double[]{1D, 10D, 50D, 90D, 99D, 99.9D}) {
+            long exact = values[(int) Math.ceil(percentile / 100D * values.length) - 1];
+            long estimate = histogram.percentile(percentile);
+            double error = Math.abs(estimate - exact) / (double) exact;
+            // 每个 2 的幂区间 16 个桶, 取桶中点, 相对误差不超过 1/32
+            assertTrue(percentile + ": " + estimate + " vs " + exact, error <= 1D / 32D);
+        }
+        assertEquals(values[values.length - 1], histogram.max());
+        assertEquals(values[values.length - 1], histogram.percentile(100D));
+        assertEquals(values.length, histogram.count());
+    }
+
+    @Test
+    public void smallValuesAreExact() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 0L; value < 16L; value++) {
+            histogram.record(value);
+        }
+        assertEquals(0L, histogram.percentile(0D));
+        assertEquals(7L, histogram.percentile(50D));
+        assertEquals(15L, histogram.percentile(100D));
+    }
+
+    @Test
+    public void emptyHistogramReturnsZero() {
+        assertEquals(0L, new LatencyHistogram().percentile(99D));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void percentileOutOfRangeIsRejected() {
+        new LatencyHistogram().percentile(100.1D);
+    }
+}
@@ -0,0 +1,108 @@
+package com.xuangy.lib.ratelimit.simulation;
+
+import com.xuangy.lib.ratelimit.ByteRateLimiter;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class SimulationTest {
+
+    private static final long SECONDS = 10L;
+
+    /**
+     * 每个 key 到达 offered 次, 每毫秒一次; 只放行前 admitted 次
+     */
+    private static SimulationReport replay(long[][] offeredAndAdmitted) {
+        List<Arrival> arrivals = new ArrayList<>();
+        Map<String, Long> quota = new HashMap<>();
+        for (int i = 0; i < offeredAndAdmitted.length; i++) {
+            String key = "k" + i;
+            quota.put(key, offeredAndAdmitted[i][1]);
+            for (int n = 0; n < offeredAndAdmitted[i][0]; n++) {
+                arrivals.add(new Arrival(TimeUnit.MILLISECONDS.toNanos(n), key, 1));
+            }
+        }
+        arrivals.sort((a, b) -> Long.compare(a.getTimeNanos(), b.getTimeNanos()));
+        return Simulation.run(ArrivalTrace.recorded(arrivals), new VirtualClock(),
+                (key, permits) -> quota.merge(key, -1L, Long::sum) >= 0L);
+    }
+
+    @Test
+    public void jainIsOneWhenEveryKeyGetsItsMaxMinShare() {
+        // 总放行 7: 需求为 2 的 key 拿满 2, 其余 5 全部给需求为 10 的 key
+        SimulationReport report = replay(new long[][]{{10, 5}, {2, 2}});
+        assertEquals(12L, report.getOffered());
+        assertEquals(7L, report.getAdmitted());
+        assertEquals(5D, report.getKeys().get("k0").getFairShare(), 1e-9);
+        assertEquals(2D, report.getKeys().get("k1").getFairShare(), 1e-9);
+        assertEquals(1D, report.getJainFairness(), 1e-9);
+    }
+
+    @Test
+    public void jainMatchesHandComputedValue() {
+        // 份额均为 4, 放行 / 份额 = 1.5 与 0.5, jain = 2^2 / (2 * (1.5^2 + 0.5^2)) = 0.8
+        SimulationReport report = replay(new long[][]{{10, 6}, {10, 2}});
+        assertEquals(4D, report.getKeys().get("k0").getFairShare(), 1e-9);
+        assertEquals(0.8D, report.getJainFairness(), 1e-9);
+        // 三个 key: 份额 1, 4.5, 4.5; x = 1, 4 / 4.5, 5 / 4.5
+        SimulationReport three = replay(new long[][]{{1, 1}, {10, 4}, {10, 5}});
+        double x1 = 1D;
+        double x2 = 4D / 4.5D;
+        double x3 = 5D / 4.5D;
+        double expected = Math.pow(x1 + x2 + x3, 2) / (3 * (x1 * x1 + x2 * x2 + x3 * x3));
+        assertEquals(expected, three.getJainFairness(), 1e-9);
+    }
+
+    private static SimulationReport overload(long seed) {
+        VirtualClock clock = new VirtualClock();
+        // 100/s, 突发 100, 三条轨迹合计约 2000/s, 远超配额
+        ByteRateLimiter limiter = new ByteRateLimiter(100L, 100L, clock);
+        ArrivalTrace trace = ArrivalTrace.merge(
+                ArrivalTrace.poisson("poisson", 1000D, SECONDS, TimeUnit.SECONDS, seed),
+                ArrivalTrace.bursty("bursty", 10D, 1000D, 100, 1000, SECONDS * 1000, TimeUnit.MILLISECONDS, seed + 1),
+                ArrivalTrace.diurnal("diurnal", 100D, 0.5D, SECONDS, SECONDS, TimeUnit.SECONDS, seed + 2));
+        return Simulation.run(trace, clock, Admission.of(limiter));
+    }
+
+    @Test
+    public void seededTracesHaveExpectedVolumeAndAdmittedCount() {
+        SimulationReport report = overload(42L);
+        Map<String, SimulationReport.KeyStats> keys = report.getKeys();
+        // 到达数与期望值相差不超过 4 个标准差
+        assertNear(10_000D, keys.get("poisson").getOffered());
+        assertNear(SECONDS * (10D * 0.9D + 1000D * 0.1D), keys.get("bursty").getOffered());
+        assertNear(SECONDS * 100D, keys.get("diurnal").getOffered());
+        // 持续过载下的放行数为 速率 * 时长 + 突发量
+        long expected = 100L * SECONDS + 100L;
+        assertTrue(report.toString(), Math.abs(report.getAdmitted() - expected) <= 2);
+        assertTrue(report.toString(), report.getJainFairness() > 0D && report.getJainFairness() <= 1D);
+        assertEquals(0L, report.maxLatencyNanos());
+    }
+
+    @Test
+    public void sameSeedGivesIdenticalReport() {
+        SimulationReport first = overload(7L);
+        SimulationReport second = overload(7L);
+        assertEquals(first.getOffered(), second.getOffered());
+        assertEquals(first.getAdmitted(), second.getAdmitted());
+        assertEquals(first.getJainFairness(), second.getJainFairness(), 0D);
+        assertEquals(first.getSimulatedNanos(), second.getSimulatedNanos());
+        for (String key : first.getKeys().keySet()) {
+            assertEquals(first.getKeys().get(key).toString(), second.getKeys().get(key).toString());
+        }
+        SimulationReport other = overload(8L);
+        assertTrue(other.getOffered() != first.getOffered() || other.getAdmitted() != first.getAdmitted()
+                || other.getJainFairness() != first.getJainFairness());
+    }
+
+    private static void assertNear(double expected, long actual) {
+        assertTrue(actual + " vs " + expected, Math.abs(actual - expected) <= 4D * Math.sqrt(expected));
+    }
+}
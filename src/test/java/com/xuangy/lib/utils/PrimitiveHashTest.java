@@ -0,0 +1,97 @@
+package com.xuangy.lib.utils;
+
+import org.junit.Test;
+
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PrimitiveHashTest {
+
+    @Test
+    public void growingPastMaxCapacityFailsBeforeShifting() {
+        assertEquals(PrimitiveHash.MAX_CAPACITY, PrimitiveHash.nextCapacity(PrimitiveHash.MAX_CAPACITY >>> 1, 0, "test"));
+        try {
+            PrimitiveHash.nextCapacity(PrimitiveHash.MAX_CAPACITY, 1, "test");
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            assertTrue(expected.getMessage().startsWith("test capacity exceeded"));
+        }
+    }
+
+    @Test
+    public void mapsMatchJdkCollections() {
+        Random random = new Random(42);
+        LongLongMap longMap = new LongLongMap(4);
+        LongIntMap intMap = new LongIntMap(4);
+        LongSet set = new LongSet(4);
+        Map<Long, Long> expected = new HashMap<>();
+        Set<Long> expectedSet = new HashSet<>();
+        try (OffHeapLongLongMap offHeap = new OffHeapLongLongMap(4)) {
+            for (int i = 0; i < 200_000; i++) {
+                long key = random.nextInt(5_000) - 100;
+                if (random.nextInt(3) == 0) {
+                    longMap.remove(key);
+                    intMap.remove(key);
+                    set.remove(key);
+                    offHeap.remove(key);
+                    expected.remove(key);
+                    expectedSet.remove(key);
+                } else {
+                    longMap.addTo(key, 1L);
+                    intMap.addTo(key, 1);
+                    set.add(key);
+                    offHeap.addTo(key, 1L);
+                    expected.merge(key, 1L, Long::sum);
+                    expectedSet.add(key);
+                }
+            }
+            assertEquals(expected.size(), longMap.size());
+            assertEquals(expected.size(), intMap.size());
+            assertEquals(expected.size(), offHeap.size());
+            assertEquals(expectedSet.size(), set.size());
+            for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+                assertEquals(entry.getValue().longValue(), longMap.get(entry.getKey()));
+                assertEquals(entry.getValue().intValue(), intMap.get(entry.getKey()));
+                assertEquals(entry.getValue().longValue(), offHeap.get(entry.getKey()));
+                assertTrue(set.contains(entry.getKey()));
+            }
+        }
+    }
+
+    @Test
+    public void closedOffHeapMapReleasesMemory() {
+        long before = directMemoryUsed();
+        OffHeapLongLongMap map = new OffHeapLongLongMap(1 << 16);
+        map.put(1L, 2L);
+        long bytes = map.offHeapBytes();
+        assertTrue(directMemoryUsed() - before >= bytes);
+        map.close();
+        map.close();
+        assertEquals(0L, map.offHeapBytes());
+        assertTrue(directMemoryUsed() - before < bytes);
+        try {
+            map.get(1L);
+            fail("expected IllegalStateException");
+        } catch (IllegalStateException expected) {
+            // 关闭后不能再访问已释放的直接内存
+        }
+    }
+
+    private static long directMemoryUsed() {
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                return pool.getMemoryUsed();
+            }
+        }
+        return 0L;
+    }
+}
@@ -0,0 +1,27 @@
+package com.xuangy.lib.utils;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimerWheelTest {
+
+    @Test
+    public void stopCancelsPendingTimeouts() throws InterruptedException {
+        TimerWheel timer = new TimerWheel("timer-wheel-test");
+        AtomicBoolean ran = new AtomicBoolean();
+        CountDownLatch cancelled = new CountDownLatch(1);
+        TimerWheel.Timeout timeout = timer.schedule(() -> ran.set(true), cancelled::countDown, 1, TimeUnit.HOURS);
+        timer.stop();
+        assertTrue(cancelled.await(5, TimeUnit.SECONDS));
+        assertTrue(timeout.isCancelled());
+        assertFalse(ran.get());
+        assertEquals(0L, timer.pendingTimeouts());
+    }
+}